@@ -23,6 +23,7 @@ public class RCTCamera {
     private static final Resolution RESOLUTION_720P = new Resolution(1280, 720);
     private static final Resolution RESOLUTION_1080P = new Resolution(1920, 1080);
     private boolean _barcodeScannerEnabled = false;
+    private boolean _barcodeDualOrientationEnabled = false;
     private List<String> _barCodeTypes = null;
     private int _orientation = -1;
     private int _actualDeviceOrientation = 0;
@@ -185,6 +186,14 @@ public class RCTCamera {
         _barcodeScannerEnabled = barcodeScannerEnabled;
     }
 
+    public boolean isBarcodeDualOrientationEnabled() {
+        return _barcodeDualOrientationEnabled;
+    }
+
+    public void setBarcodeDualOrientationEnabled(boolean barcodeDualOrientationEnabled) {
+        _barcodeDualOrientationEnabled = barcodeDualOrientationEnabled;
+    }
+
     public List<String> getBarCodeTypes() {
         return _barCodeTypes;
     }
@@ -0,0 +1,84 @@
+package com.lwansbrough.RCTCamera;
+
+import android.support.v4.util.Pools;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+
+/**
+ * Bar code read by the view finder of one RCTCamera view, dispatched to that view only.
+ */
+class RCTCameraBarCodeReadEvent extends Event<RCTCameraBarCodeReadEvent> {
+    static final String EVENT_NAME = "onCameraBarCodeRead";
+
+    private static final Pools.SynchronizedPool<RCTCameraBarCodeReadEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(3);
+
+    private Result mBarCode;
+
+    private RCTCameraBarCodeReadEvent() {}
+
+    static RCTCameraBarCodeReadEvent obtain(int viewTag, Result barCode) {
+        RCTCameraBarCodeReadEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new RCTCameraBarCodeReadEvent();
+        }
+        event.init(viewTag, barCode);
+        return event;
+    }
+
+    private void init(int viewTag, Result barCode) {
+        super.init(viewTag);
+        mBarCode = barCode;
+    }
+
+    /**
+     * Every read of a view shares the same key, so when JS falls behind a pending read is
+     * replaced by the newer one instead of being delivered late.
+     */
+    @Override
+    public short getCoalescingKey() {
+        return 0;
+    }
+
+    @Override
+    public String getEventName() {
+        return EVENT_NAME;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+        rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
+    }
+
+    @Override
+    public void onDispose() {
+        mBarCode = null;
+        EVENTS_POOL.release(this);
+    }
+
+    private WritableMap serializeEventData() {
+        WritableMap event = Arguments.createMap();
+        WritableArray resultPoints = Arguments.createArray();
+        ResultPoint[] points = mBarCode.getResultPoints();
+
+        if (points != null) {
+            for (ResultPoint point : points) {
+                WritableMap newPoint = Arguments.createMap();
+                newPoint.putDouble("x", point.getX());
+                newPoint.putDouble("y", point.getY());
+                resultPoints.pushMap(newPoint);
+            }
+        }
+
+        event.putArray("bounds", resultPoints);
+        event.putString("data", mBarCode.getText());
+        event.putString("type", mBarCode.getBarcodeFormat().toString());
+        return event;
+    }
+}
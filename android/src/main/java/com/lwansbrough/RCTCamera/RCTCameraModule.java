@@ -26,6 +26,8 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeMap;
 
+import org.reactnative.camera.CameraModule;
+
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
@@ -164,11 +166,8 @@ public class RCTCameraModule extends ReactContextBaseJavaModule
             }
 
             private Map<String, Object> getBarCodeConstants() {
-                return Collections.unmodifiableMap(new HashMap<String, Object>() {
-                    {
-                        // @TODO add barcode types
-                    }
-                });
+                // same types as RNCamera, both views parse them with BarCodeScanningCore
+                return CameraModule.VALID_BARCODE_TYPES;
             }
 
             private Map<String, Object> getTypeConstants() {
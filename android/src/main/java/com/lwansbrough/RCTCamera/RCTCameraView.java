@@ -132,6 +132,10 @@ public class RCTCameraView extends ViewGroup {
         RCTCamera.getInstance().setBarcodeScannerEnabled(barcodeScannerEnabled);
     }
 
+    public void setBarcodeDualOrientationEnabled(boolean barcodeDualOrientationEnabled) {
+        RCTCamera.getInstance().setBarcodeDualOrientationEnabled(barcodeDualOrientationEnabled);
+    }
+
     public void setBarCodeTypes(List<String> types) {
         RCTCamera.getInstance().setBarCodeTypes(types);
     }
@@ -12,28 +12,32 @@ import android.graphics.SurfaceTexture;
 import android.hardware.Camera;
 import android.view.MotionEvent;
 import android.view.TextureView;
+import android.view.View;
 import android.os.AsyncTask;
+import android.os.Process;
 
-import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
-import com.facebook.react.bridge.WritableArray;
-import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.modules.core.DeviceEventManagerModule;
+import com.facebook.react.uimanager.UIManagerModule;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
-import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
 import com.google.zxing.MultiFormatReader;
 import com.google.zxing.PlanarYUVLuminanceSource;
 import com.google.zxing.Result;
-import com.google.zxing.ResultPoint;
 import com.google.zxing.common.HybridBinarizer;
 
+import org.reactnative.camera.tasks.TaskExecutor;
+import org.reactnative.camera.tasks.TaskExecutors;
+import org.reactnative.camera.utils.BarCodeScanningCore;
+
 class RCTCameraViewFinder extends TextureView implements TextureView.SurfaceTextureListener, Camera.PreviewCallback {
     private int _cameraType;
     private int _captureMode;
@@ -49,8 +53,21 @@ class RCTCameraViewFinder extends TextureView implements TextureView.SurfaceText
     // concurrency lock for barcode scanner to avoid flooding the runtime
     public static volatile boolean barcodeScannerTaskLock = false;
 
-    // reader instance for the barcode scanner
-    private final MultiFormatReader _multiFormatReader = new MultiFormatReader();
+    // formats of the barcode scanner, readers come from BarCodeScanningCore's pool
+    private EnumSet<BarcodeFormat> _barCodeFormats;
+    // rotated luminance of the frame being scanned, reused from frame to frame
+    private byte[] _rotatedMatrix = new byte[0];
+    // decodes the rotated frame next to the upright one when barcodeDualOrientation is set,
+    // its own thread so that it never queues behind unrelated AsyncTasks of the app
+    private static final TaskExecutor ROTATED_BAR_CODE =
+            new TaskExecutor("RCTCamera RotatedBarCode", 1, Process.THREAD_PRIORITY_DEFAULT);
+
+    // preview size, cached to avoid querying the camera parameters for every frame
+    private int _previewWidth;
+    private int _previewHeight;
+
+    // tag of the RCTCameraView the events are sent to, resolved once attached
+    private int _viewTag = View.NO_ID;
 
     public RCTCameraViewFinder(Context context, int type) {
         super(context);
@@ -59,6 +76,18 @@ class RCTCameraViewFinder extends TextureView implements TextureView.SurfaceText
         this.initBarcodeReader(RCTCamera.getInstance().getBarCodeTypes());
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        _viewTag = getParent() instanceof View ? ((View) getParent()).getId() : View.NO_ID;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        _viewTag = View.NO_ID;
+        super.onDetachedFromWindow();
+    }
+
     @Override
     public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
         _surfaceTexture = surface;
@@ -189,6 +218,9 @@ class RCTCameraViewFinder extends TextureView implements TextureView.SurfaceText
                 parameters.setPictureSize(optimalPictureSize.width, optimalPictureSize.height);
 
                 _camera.setParameters(parameters);
+                Camera.Size previewSize = parameters.getPreviewSize();
+                _previewWidth = previewSize.width;
+                _previewHeight = previewSize.height;
                 _camera.setPreviewTexture(_surfaceTexture);
                 _camera.startPreview();
                 // clear window background if needed
@@ -241,134 +273,100 @@ class RCTCameraViewFinder extends TextureView implements TextureView.SurfaceText
         return null;
     }
 
-    /**
-     * Parse barcodes as BarcodeFormat constants.
-     *
-     * Supports all iOS codes except [code39mod43, itf14]
-     *
-     * Additionally supports [codabar, maxicode, rss14, rssexpanded, upca, upceanextension]
-     */
-    private BarcodeFormat parseBarCodeString(String c) {
-        if ("aztec".equals(c)) {
-            return BarcodeFormat.AZTEC;
-        } else if ("ean13".equals(c)) {
-            return BarcodeFormat.EAN_13;
-        } else if ("ean8".equals(c)) {
-            return BarcodeFormat.EAN_8;
-        } else if ("qr".equals(c)) {
-            return BarcodeFormat.QR_CODE;
-        } else if ("pdf417".equals(c)) {
-            return BarcodeFormat.PDF_417;
-        } else if ("upce".equals(c)) {
-            return BarcodeFormat.UPC_E;
-        } else if ("datamatrix".equals(c)) {
-            return BarcodeFormat.DATA_MATRIX;
-        } else if ("code39".equals(c)) {
-            return BarcodeFormat.CODE_39;
-        } else if ("code93".equals(c)) {
-            return BarcodeFormat.CODE_93;
-        } else if ("interleaved2of5".equals(c)) {
-            return BarcodeFormat.ITF;
-        } else if ("codabar".equals(c)) {
-            return BarcodeFormat.CODABAR;
-        } else if ("code128".equals(c)) {
-            return BarcodeFormat.CODE_128;
-        } else if ("maxicode".equals(c)) {
-            return BarcodeFormat.MAXICODE;
-        } else if ("rss14".equals(c)) {
-            return BarcodeFormat.RSS_14;
-        } else if ("rssexpanded".equals(c)) {
-            return BarcodeFormat.RSS_EXPANDED;
-        } else if ("upca".equals(c)) {
-            return BarcodeFormat.UPC_A;
-        } else if ("upceanextension".equals(c)) {
-            return BarcodeFormat.UPC_EAN_EXTENSION;
-        } else {
-            android.util.Log.v("RCTCamera", "Unsupported code.. [" + c + "]");
-            return null;
-        }
-    }
-
     /**
      * Initialize the barcode decoder.
      */
     private void initBarcodeReader(List<String> barCodeTypes) {
-        EnumMap<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
-        EnumSet<BarcodeFormat> decodeFormats = EnumSet.noneOf(BarcodeFormat.class);
-
-        if (barCodeTypes != null) {
-            for (String code : barCodeTypes) {
-                BarcodeFormat format = parseBarCodeString(code);
-                if (format != null) {
-                    decodeFormats.add(format);
-                }
-            }
-        }
-
-        hints.put(DecodeHintType.POSSIBLE_FORMATS, decodeFormats);
-        _multiFormatReader.setHints(hints);
+        _barCodeFormats = BarCodeScanningCore.parseFormats(barCodeTypes);
     }
 
     /**
      * Spawn a barcode reader task if
      *  - the barcode scanner is enabled (has a onBarCodeRead function)
      *  - one isn't already running
+     *  - the view is attached, so that the events have a target
      *
      * See {Camera.PreviewCallback}
      */
     public void onPreviewFrame(byte[] data, Camera camera) {
-        if (RCTCamera.getInstance().isBarcodeScannerEnabled() && !RCTCameraViewFinder.barcodeScannerTaskLock) {
+        if (_viewTag != View.NO_ID && RCTCamera.getInstance().isBarcodeScannerEnabled()
+                && !RCTCameraViewFinder.barcodeScannerTaskLock) {
             RCTCameraViewFinder.barcodeScannerTaskLock = true;
-            new ReaderAsyncTask(camera, data).execute();
+            // preview frames are NV21, a size mismatch means the preview size changed
+            if (data.length != _previewWidth * _previewHeight * 3 / 2) {
+                Camera.Size size = camera.getParameters().getPreviewSize();
+                _previewWidth = size.width;
+                _previewHeight = size.height;
+            }
+            new ReaderAsyncTask(_viewTag, data, _previewWidth, _previewHeight)
+                    .executeOnExecutor(TaskExecutors.BAR_CODE);
         }
     }
 
     private class ReaderAsyncTask extends AsyncTask<Void, Void, Void> {
-        private byte[] imageData;
-        private final Camera camera;
+        private final int viewTag;
+        private final byte[] imageData;
+        private final int width;
+        private final int height;
 
-        ReaderAsyncTask(Camera camera, byte[] imageData) {
-            this.camera = camera;
+        ReaderAsyncTask(int viewTag, byte[] imageData, int width, int height) {
+            this.viewTag = viewTag;
             this.imageData = imageData;
+            this.width = width;
+            this.height = height;
         }
 
-        private Result getBarcode(int width, int height) {
-            try{
-              PlanarYUVLuminanceSource source = new PlanarYUVLuminanceSource(imageData, width, height, 0, 0, width, height, false);
+        private Result getBarcode(LuminanceSource source) {
+            MultiFormatReader reader = BarCodeScanningCore.acquireReader(_barCodeFormats, false);
+            try {
               BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-              return _multiFormatReader.decodeWithState(bitmap);
+              return reader.decodeWithState(bitmap);
             } catch (Throwable t) {
                 // meh
             } finally {
-                _multiFormatReader.reset();
+                BarCodeScanningCore.releaseReader(reader);
             }
             return null;
         }
 
-        private Result getBarcodeAnyOrientation() {
-            Camera.Size size = camera.getParameters().getPreviewSize();
+        private Result getUprightBarcode() {
+            return getBarcode(new PlanarYUVLuminanceSource(imageData, width, height, 0, 0, width, height, false));
+        }
 
-            int width = size.width;
-            int height = size.height;
-            Result result = getBarcode(width, height);
-            if (result != null)
-              return result;
+        private Result getRotatedBarcode() {
+            if (_rotatedMatrix.length < width * height) {
+                _rotatedMatrix = new byte[width * height];
+            }
+            return getBarcode(new RotatedLuminanceSource(imageData, width, height, _rotatedMatrix));
+        }
 
-            rotateImage(width, height);
-            width = size.height;
-            height = size.width;
+        private Result getBarcodeAnyOrientation() {
+            if (!RCTCamera.getInstance().isBarcodeDualOrientationEnabled()) {
+                Result result = getUprightBarcode();
+                if (result != null)
+                  return result;
 
-            return getBarcode(width, height);
-        }
+                // rotate for zxing if orientation is portrait
+                return getRotatedBarcode();
+            }
 
-        private void rotateImage(int width, int height) {
-            byte[] rotated = new byte[imageData.length];
-            for (int y = 0; y < height; y++) {
-              for (int x = 0; x < width; x++) {
-                rotated[x * height + height - y - 1] = imageData[x + y * width];
-              }
+            // decode the rotated frame on another core meanwhile, not on the barcode executor
+            // which may have a single thread, busy waiting for it
+            FutureTask<Result> rotatedTask = new FutureTask<>(new Callable<Result>() {
+                @Override
+                public Result call() {
+                    return getRotatedBarcode();
+                }
+            });
+            ROTATED_BAR_CODE.execute(rotatedTask);
+            Result result = getUprightBarcode();
+            try {
+                // always wait, the next frame reuses the rotated matrix
+                Result rotatedResult = rotatedTask.get();
+                return result != null ? result : rotatedResult;
+            } catch (InterruptedException | ExecutionException e) {
+                return result;
             }
-            imageData = rotated;
         }
 
         @Override
@@ -377,36 +375,22 @@ class RCTCameraViewFinder extends TextureView implements TextureView.SurfaceText
                 return null;
             }
 
+            TaskExecutor.applyThreadPriority();
             try {
-                // rotate for zxing if orientation is portrait
+                long start = System.nanoTime();
                 Result result = getBarcodeAnyOrientation();
+                BarCodeScanningCore.recordScan(BarCodeScanningCore.SOURCE_RCT_CAMERA, System.nanoTime() - start, result != null);
                 if (result == null){
                     throw new Exception();
                 }
 
-                ReactContext reactContext = RCTCameraModule.getReactContextSingleton();
-                WritableMap event = Arguments.createMap();
-                WritableArray resultPoints = Arguments.createArray();
-                ResultPoint[] points = result.getResultPoints();
-
-                if(points != null) {
-                    for (ResultPoint point : points) {
-                        WritableMap newPoint = Arguments.createMap();
-                        newPoint.putString("x", String.valueOf(point.getX()));
-                        newPoint.putString("y", String.valueOf(point.getY()));
-                        resultPoints.pushMap(newPoint);
-                    }
-                }
-
-                event.putArray("bounds", resultPoints);
-                event.putString("data", result.getText());
-                event.putString("type", result.getBarcodeFormat().toString());
-                reactContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class).emit("CameraBarCodeReadAndroid", event);
+                ReactContext reactContext = (ReactContext) getContext();
+                reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher()
+                        .dispatchEvent(RCTCameraBarCodeReadEvent.obtain(viewTag, result));
 
             } catch (Throwable t) {
                 // meh
             } finally {
-                _multiFormatReader.reset();
                 RCTCameraViewFinder.barcodeScannerTaskLock = false;
                 return null;
             }
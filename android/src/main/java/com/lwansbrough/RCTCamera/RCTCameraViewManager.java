@@ -55,6 +55,14 @@ public class RCTCameraViewManager extends ViewGroupManager<RCTCameraView> {
         }
     }
 
+    @Override
+    @Nullable
+    public Map<String, Object> getExportedCustomDirectEventTypeConstants() {
+        return MapBuilder.<String, Object>of(
+                RCTCameraBarCodeReadEvent.EVENT_NAME,
+                MapBuilder.of("registrationName", RCTCameraBarCodeReadEvent.EVENT_NAME));
+    }
+
     @ReactProp(name = "aspect")
     public void setAspect(RCTCameraView view, int aspect) {
         view.setAspect(aspect);
@@ -113,6 +121,11 @@ public class RCTCameraViewManager extends ViewGroupManager<RCTCameraView> {
         view.setBarcodeScannerEnabled(barcodeScannerEnabled);
     }
 
+    @ReactProp(name = "barcodeDualOrientation")
+    public void setBarcodeDualOrientation(RCTCameraView view, boolean barcodeDualOrientation) {
+        view.setBarcodeDualOrientationEnabled(barcodeDualOrientation);
+    }
+
     @ReactProp(name = "barCodeTypes")
     public void setBarCodeTypes(RCTCameraView view, ReadableArray barCodeTypes) {
         if (barCodeTypes == null) {
@@ -0,0 +1,57 @@
+package com.lwansbrough.RCTCamera;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * Luminance of a YUV preview frame rotated 90 degrees clockwise, read in place from the frame.
+ *
+ * Rows are mapped on the fly. The full matrix, which HybridBinarizer asks for, is written into a
+ * buffer provided by the caller, so that it can be reused from frame to frame. This saves the
+ * allocation only: getMatrix() still transposes the whole frame on every call.
+ */
+class RotatedLuminanceSource extends LuminanceSource {
+    private final byte[] yuvData;
+    private final int dataWidth;
+    private final int dataHeight;
+    private final byte[] matrix;
+
+    /**
+     * @param matrix buffer of at least dataWidth * dataHeight bytes, overwritten by getMatrix()
+     */
+    RotatedLuminanceSource(byte[] yuvData, int dataWidth, int dataHeight, byte[] matrix) {
+        super(dataHeight, dataWidth);
+        this.yuvData = yuvData;
+        this.dataWidth = dataWidth;
+        this.dataHeight = dataHeight;
+        this.matrix = matrix;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        // Pixel (x, y) of the rotated frame is pixel (y, dataHeight - 1 - x) of the frame
+        int offset = (dataHeight - 1) * dataWidth + y;
+        for (int x = 0; x < width; x++) {
+            row[x] = yuvData[offset];
+            offset -= dataWidth;
+        }
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        // Walks the frame in memory order, writes are strided instead
+        for (int frameY = 0; frameY < dataHeight; frameY++) {
+            int x = dataHeight - 1 - frameY;
+            int frameOffset = frameY * dataWidth;
+            for (int frameX = 0; frameX < dataWidth; frameX++) {
+                matrix[frameX * width + x] = yuvData[frameOffset + frameX];
+            }
+        }
+        return matrix;
+    }
+}
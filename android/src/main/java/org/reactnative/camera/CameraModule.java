@@ -8,6 +8,7 @@ import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.uimanager.NativeViewHierarchyManager;
@@ -17,7 +18,10 @@ import com.google.android.cameraview.AspectRatio;
 import com.google.zxing.BarcodeFormat;
 
 import org.reactnative.camera.tasks.ResolveTakenPictureAsyncTask;
+import org.reactnative.camera.tasks.TaskExecutors;
+import org.reactnative.camera.utils.BarCodeScanningCore;
 import org.reactnative.camera.utils.ScopedContext;
+import org.reactnative.camera.utils.Tracer;
 import org.reactnative.facedetector.RNFaceDetector;
 
 import java.io.File;
@@ -208,7 +212,7 @@ public class CameraModule extends ReactContextBaseJavaModule {
                   image.compress(Bitmap.CompressFormat.JPEG, 100, stream);
                   byte[] byteArray = stream.toByteArray();
 
-                  new ResolveTakenPictureAsyncTask(byteArray, promise, options, cacheDirectory).execute();
+                  new ResolveTakenPictureAsyncTask(byteArray, promise, options, cacheDirectory).executeOnExecutor(TaskExecutors.CAPTURE);
               }
         } catch (Exception e) {
           promise.reject("E_CAMERA_BAD_VIEWTAG", "takePictureAsync: Expected a Camera component");
@@ -263,6 +267,77 @@ public class CameraModule extends ReactContextBaseJavaModule {
       });
   }
 
+  @ReactMethod
+  public void getPipelineStats(final int viewTag, final Promise promise) {
+      final ReactApplicationContext context = getReactApplicationContext();
+      UIManagerModule uiManager = context.getNativeModule(UIManagerModule.class);
+      uiManager.addUIBlock(new UIBlock() {
+          @Override
+          public void execute(NativeViewHierarchyManager nativeViewHierarchyManager) {
+              final RNCameraView cameraView;
+              try {
+                  cameraView = (RNCameraView) nativeViewHierarchyManager.resolveView(viewTag);
+              } catch (Exception e) {
+                  promise.reject("E_CAMERA_BAD_VIEWTAG", "getPipelineStatsAsync: Expected a Camera component");
+                  return;
+              }
+              promise.resolve(cameraView.getPipelineStats());
+          }
+      });
+  }
+
+  @ReactMethod
+  public void resetPipelineStats(final int viewTag) {
+      final ReactApplicationContext context = getReactApplicationContext();
+      UIManagerModule uiManager = context.getNativeModule(UIManagerModule.class);
+      uiManager.addUIBlock(new UIBlock() {
+          @Override
+          public void execute(NativeViewHierarchyManager nativeViewHierarchyManager) {
+              try {
+                  RNCameraView cameraView = (RNCameraView) nativeViewHierarchyManager.resolveView(viewTag);
+                  cameraView.resetPipelineStats();
+              } catch (Exception e) {
+                  e.printStackTrace();
+              }
+          }
+      });
+  }
+
+  @ReactMethod
+  public void setTracingEnabled(final boolean enabled) {
+      Tracer.setEnabled(enabled);
+  }
+
+  @ReactMethod
+  public void dumpTrace(final boolean clear, final Promise promise) {
+      promise.resolve(Tracer.dump(clear));
+  }
+
+  @ReactMethod
+  public void configureTaskExecutors(final ReadableMap options) {
+      TaskExecutors.configure(options);
+  }
+
+  @ReactMethod
+  public void getTaskExecutorsStatus(final Promise promise) {
+      promise.resolve(TaskExecutors.getStatus());
+  }
+
+  @ReactMethod
+  public void getBarCodeScanningStats(final Promise promise) {
+      promise.resolve(BarCodeScanningCore.getStats());
+  }
+
+  @ReactMethod
+  public void resetBarCodeScanningStats() {
+      BarCodeScanningCore.resetStats();
+  }
+
+  @ReactMethod
+  public void decodeBarcodesFromFiles(final ReadableArray uris, final ReadableMap options, final Promise promise) {
+      new FileBarCodeDecodingBatch(getReactApplicationContext(), uris, options, promise).start();
+  }
+
   @ReactMethod
   public void getSupportedRatios(final int viewTag, final Promise promise) {
       final ReactApplicationContext context = getReactApplicationContext();
@@ -3,12 +3,20 @@ package org.reactnative.camera;
 import android.support.annotation.Nullable;
 
 import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.ViewGroupManager;
 import com.facebook.react.uimanager.annotations.ReactProp;
 import com.google.android.cameraview.AspectRatio;
 
+import org.reactnative.camera.utils.BarCodeEmissionCache;
+import org.reactnative.camera.utils.BarCodeScanArea;
+import org.reactnative.camera.utils.BarCodeTracker;
+import org.reactnative.camera.utils.DecodeLadder;
+import org.reactnative.camera.utils.FaceDeltaTracker;
+import org.reactnative.facedetector.FaceDetectorUtils;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -18,7 +26,9 @@ public class CameraViewManager extends ViewGroupManager<RNCameraView> {
     EVENT_CAMERA_READY("onCameraReady"),
     EVENT_ON_MOUNT_ERROR("onMountError"),
     EVENT_ON_BAR_CODE_READ("onBarCodeRead"),
+    EVENT_ON_BAR_CODES_READ("onBarCodesRead"),
     EVENT_ON_FACES_DETECTED("onFacesDetected"),
+    EVENT_ON_FACES_CHANGED("onFacesChanged"),
     EVENT_ON_FACE_DETECTION_ERROR("onFaceDetectionError");
 
     private final String mName;
@@ -42,6 +52,12 @@ public class CameraViewManager extends ViewGroupManager<RNCameraView> {
   }
 
 
+  @Override
+  protected void onAfterUpdateTransaction(RNCameraView view) {
+    super.onAfterUpdateTransaction(view);
+    view.warmUpFaceDetectorIfNeeded();
+  }
+
   @Override
   public String getName() {
     return REACT_CLASS;
@@ -102,6 +118,16 @@ public class CameraViewManager extends ViewGroupManager<RNCameraView> {
     view.setWhiteBalance(whiteBalance);
   }
 
+  @ReactProp(name = "maxInFlightCaptures", defaultInt = 2)
+  public void setMaxInFlightCaptures(RNCameraView view, int maxInFlightCaptures) {
+    view.setMaxInFlightCaptures(maxInFlightCaptures);
+  }
+
+  @ReactProp(name = "captureOverflowPolicy")
+  public void setCaptureOverflowPolicy(RNCameraView view, String policy) {
+    view.setCaptureOverflowPolicy(policy);
+  }
+
   @ReactProp(name = "barCodeTypes")
   public void setBarCodeTypes(RNCameraView view, ReadableArray barCodeTypes) {
     if (barCodeTypes == null) {
@@ -119,6 +145,84 @@ public class CameraViewManager extends ViewGroupManager<RNCameraView> {
     view.setShouldScanBarCodes(barCodeScannerEnabled);
   }
 
+  @ReactProp(name = "multipleBarCodesEnabled")
+  public void setMultipleBarCodesEnabled(RNCameraView view, boolean multipleBarCodesEnabled) {
+    view.setMultipleBarCodesEnabled(multipleBarCodesEnabled);
+  }
+
+  @ReactProp(name = "barCodeDebounce")
+  public void setBarCodeDebounce(RNCameraView view, @Nullable ReadableMap debounce) {
+    if (debounce == null) {
+      view.setBarCodeDebounce(0, BarCodeEmissionCache.DEFAULT_MAX_ENTRIES, 0);
+      return;
+    }
+    view.setBarCodeDebounce(
+        debounce.hasKey("window") ? debounce.getInt("window") : 0,
+        debounce.hasKey("maxEntries") ? debounce.getInt("maxEntries") : BarCodeEmissionCache.DEFAULT_MAX_ENTRIES,
+        debounce.hasKey("heartbeatInterval") ? debounce.getInt("heartbeatInterval") : 0
+    );
+  }
+
+  @ReactProp(name = "adaptiveBarCodeFormats")
+  public void setAdaptiveBarCodeFormats(RNCameraView view, boolean adaptive) {
+    view.setAdaptiveBarCodeFormats(adaptive);
+  }
+
+  @ReactProp(name = "barCodeDecodeLadder")
+  public void setBarCodeDecodeLadder(RNCameraView view, @Nullable ReadableMap ladder) {
+    if (ladder == null) {
+      view.setBarCodeDecodeLadder(false, DecodeLadder.DEFAULT_HYBRID_INTERVAL, DecodeLadder.DEFAULT_MISS_THRESHOLD);
+      return;
+    }
+    view.setBarCodeDecodeLadder(
+        true,
+        ladder.hasKey("hybridInterval") ? ladder.getInt("hybridInterval") : DecodeLadder.DEFAULT_HYBRID_INTERVAL,
+        ladder.hasKey("missThreshold") ? ladder.getInt("missThreshold") : DecodeLadder.DEFAULT_MISS_THRESHOLD
+    );
+  }
+
+  @ReactProp(name = "barCodeTracking")
+  public void setBarCodeTracking(RNCameraView view, @Nullable ReadableMap tracking) {
+    if (tracking == null) {
+      view.setBarCodeTracking(false, BarCodeTracker.DEFAULT_PADDING, BarCodeTracker.DEFAULT_MAX_MISSES);
+      return;
+    }
+    view.setBarCodeTracking(
+        true,
+        tracking.hasKey("padding") ? (float) tracking.getDouble("padding") : BarCodeTracker.DEFAULT_PADDING,
+        tracking.hasKey("maxMisses") ? tracking.getInt("maxMisses") : BarCodeTracker.DEFAULT_MAX_MISSES
+    );
+  }
+
+  @ReactProp(name = "barCodeDecoder")
+  public void setBarCodeDecoder(RNCameraView view, @Nullable String decoder) {
+    view.setBarCodeDecoder(decoder);
+  }
+
+  @ReactProp(name = "barCodeScanInterval")
+  public void setBarCodeScanInterval(RNCameraView view, int interval) {
+    view.setBarCodeScanInterval(interval);
+  }
+
+  @ReactProp(name = "barCodeScanArea")
+  public void setBarCodeScanArea(RNCameraView view, @Nullable ReadableMap scanArea) {
+    if (scanArea == null) {
+      view.setBarCodeScanArea(null);
+      return;
+    }
+    view.setBarCodeScanArea(new BarCodeScanArea(
+        scanArea.hasKey("x") ? (float) scanArea.getDouble("x") : 0,
+        scanArea.hasKey("y") ? (float) scanArea.getDouble("y") : 0,
+        scanArea.hasKey("width") ? (float) scanArea.getDouble("width") : 1,
+        scanArea.hasKey("height") ? (float) scanArea.getDouble("height") : 1
+    ));
+  }
+
+  @ReactProp(name = "barCodeDownsampling", defaultInt = 1)
+  public void setBarCodeDownsampling(RNCameraView view, int factor) {
+    view.setBarCodeDownsampling(factor);
+  }
+
   @ReactProp(name = "useCamera2Api")
   public void setUseCamera2Api(RNCameraView view, boolean useCamera2Api) {
     view.setUsingCamera2Api(useCamera2Api);
@@ -129,6 +233,42 @@ public class CameraViewManager extends ViewGroupManager<RNCameraView> {
     view.setShouldDetectFaces(faceDetectorEnabled);
   }
 
+  @ReactProp(name = "faceDeltasEnabled")
+  public void setFaceDeltasEnabled(RNCameraView view, boolean faceDeltasEnabled) {
+    view.setFaceDeltasEnabled(faceDeltasEnabled);
+  }
+
+  @ReactProp(name = "faceDeltasOnly")
+  public void setFaceDeltasOnly(RNCameraView view, boolean faceDeltasOnly) {
+    view.setFaceDeltasOnly(faceDeltasOnly);
+  }
+
+  @ReactProp(name = "faceDeltaThreshold", defaultFloat = FaceDeltaTracker.DEFAULT_THRESHOLD)
+  public void setFaceDeltaThreshold(RNCameraView view, float threshold) {
+    view.setFaceDeltaThreshold(threshold);
+  }
+
+  @ReactProp(name = "compactFaceEvents")
+  public void setCompactFaceEvents(RNCameraView view, @Nullable ReadableMap compactFaceEvents) {
+    if (compactFaceEvents == null) {
+      view.setCompactFaceEvents(null);
+      return;
+    }
+    view.setCompactFaceEvents(compactFaceEvents.hasKey("landmarks")
+        ? FaceDetectorUtils.landmarkTypesFromNames(compactFaceEvents.getArray("landmarks"))
+        : new int[0]);
+  }
+
+  @ReactProp(name = "faceDetectionInterval")
+  public void setFaceDetectionInterval(RNCameraView view, int interval) {
+    view.setFaceDetectionInterval(interval);
+  }
+
+  @ReactProp(name = "faceDetectionResolution")
+  public void setFaceDetectionResolution(RNCameraView view, int resolution) {
+    view.setFaceDetectionResolution(resolution);
+  }
+
   @ReactProp(name = "faceDetectionMode")
   public void setFaceDetectionMode(RNCameraView view, int mode) {
     view.setFaceDetectionMode(mode);
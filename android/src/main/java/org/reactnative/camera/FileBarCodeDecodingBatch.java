@@ -0,0 +1,185 @@
+package org.reactnative.camera;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+
+import org.reactnative.camera.tasks.FileBarCodeDecodingAsyncTask;
+import org.reactnative.camera.tasks.FileBarCodeDecodingAsyncTaskDelegate;
+import org.reactnative.camera.tasks.TaskExecutors;
+import org.reactnative.camera.utils.BarCodeScanningCore;
+import org.reactnative.camera.utils.ByteArrayPool;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decodes the bar codes of a list of image files in parallel.
+ *
+ * When the `progress` option is set, each file's result is also emitted as a
+ * FILE_BAR_CODES_DECODED_EVENT as soon as it is known, in completion order. The promise is
+ * resolved with every result, in the order of the uris, once the last file is done. A file that
+ * can't be read gets an `error` instead of failing the batch.
+ */
+public class FileBarCodeDecodingBatch implements FileBarCodeDecodingAsyncTaskDelegate {
+  public static final String FILE_BAR_CODES_DECODED_EVENT = "RNCameraFileBarCodesDecoded";
+
+  private static final String BATCH_ID_OPTION_KEY = "batchId";
+  private static final String PROGRESS_OPTION_KEY = "progress";
+  private static final String BAR_CODE_TYPES_OPTION_KEY = "barCodeTypes";
+  private static final String MULTIPLE_OPTION_KEY = "multiple";
+  private static final String TRY_HARDER_OPTION_KEY = "tryHarder";
+  private static final String MAX_DIMENSION_OPTION_KEY = "maxDimension";
+
+  private static final int DEFAULT_MAX_DIMENSION = 2048;
+
+  // Shared by all batches, each decoding thread uses one buffer at a time. Keeps one idle buffer
+  // per thread of the default fileBarCode pool, within 32 MB.
+  private static final ByteArrayPool LUMA_POOL =
+      new ByteArrayPool(TaskExecutors.FILE_BAR_CODE.getThreadCount(), 32 * 1024 * 1024);
+
+  private final ReactApplicationContext mContext;
+  private final ReadableArray mUris;
+  private final ReadableMap mOptions;
+  private final Promise mPromise;
+  private final int mBatchId;
+  private final boolean mProgress;
+  private final WritableMap[] mResults;
+  private int mRemaining;
+
+  public FileBarCodeDecodingBatch(ReactApplicationContext context, ReadableArray uris, ReadableMap options, Promise promise) {
+    mContext = context;
+    mUris = uris;
+    mOptions = options;
+    mPromise = promise;
+    mBatchId = options.hasKey(BATCH_ID_OPTION_KEY) ? options.getInt(BATCH_ID_OPTION_KEY) : 0;
+    mProgress = options.hasKey(PROGRESS_OPTION_KEY) && options.getBoolean(PROGRESS_OPTION_KEY);
+    mResults = new WritableMap[uris.size()];
+    mRemaining = uris.size();
+  }
+
+  /**
+   * Queues one task per file. Delegate callbacks all run on the main thread.
+   */
+  public void start() {
+    if (mRemaining == 0) {
+      mPromise.resolve(Arguments.createArray());
+      return;
+    }
+
+    Set<BarcodeFormat> formats = mOptions.hasKey(BAR_CODE_TYPES_OPTION_KEY)
+        ? BarCodeScanningCore.parseFormats(toStringList(mOptions.getArray(BAR_CODE_TYPES_OPTION_KEY)))
+        : EnumSet.noneOf(BarcodeFormat.class);
+    // Files are decoded once and off the preview path, so accuracy is favored by default.
+    boolean tryHarder = !mOptions.hasKey(TRY_HARDER_OPTION_KEY) || mOptions.getBoolean(TRY_HARDER_OPTION_KEY);
+    boolean multiple = mOptions.hasKey(MULTIPLE_OPTION_KEY) && mOptions.getBoolean(MULTIPLE_OPTION_KEY);
+    int maxDimension = mOptions.hasKey(MAX_DIMENSION_OPTION_KEY)
+        ? mOptions.getInt(MAX_DIMENSION_OPTION_KEY)
+        : DEFAULT_MAX_DIMENSION;
+
+    for (int i = 0; i < mUris.size(); i++) {
+      new FileBarCodeDecodingAsyncTask(this, mContext, i, mUris.getString(i), formats, tryHarder, multiple,
+          maxDimension, LUMA_POOL)
+          .executeOnExecutor(TaskExecutors.FILE_BAR_CODE);
+    }
+  }
+
+  @Override
+  public void onFileBarCodesDecoded(int index, String uri, Result[] barCodes, int width, int height) {
+    onFileCompleted(index, serializeResult(index, uri, barCodes, width, height));
+  }
+
+  @Override
+  public void onFileBarCodesDecodingFailed(int index, String uri, String message) {
+    onFileCompleted(index, serializeError(index, uri, message));
+  }
+
+  private void onFileCompleted(int index, WritableMap result) {
+    mResults[index] = result;
+    if (mProgress) {
+      // An emitted map is consumed by the bridge, emit a copy and keep the result for the promise
+      WritableMap event = Arguments.createMap();
+      event.merge(result);
+      emit(event);
+    }
+    mRemaining--;
+    if (mRemaining > 0) {
+      return;
+    }
+    WritableArray results = Arguments.createArray();
+    for (WritableMap result : mResults) {
+      results.pushMap(result);
+    }
+    mPromise.resolve(results);
+  }
+
+  private void emit(WritableMap result) {
+    mContext
+        .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+        .emit(FILE_BAR_CODES_DECODED_EVENT, result);
+  }
+
+  private WritableMap serializeResult(int index, String uri, Result[] barCodes, int width, int height) {
+    WritableMap result = createResult(index, uri);
+    WritableArray serializedBarCodes = Arguments.createArray();
+    for (Result barCode : barCodes) {
+      WritableMap serializedBarCode = Arguments.createMap();
+      serializedBarCode.putString("data", barCode.getText());
+      serializedBarCode.putString("type", barCode.getBarcodeFormat().toString());
+      WritableArray points = Arguments.createArray();
+      ResultPoint[] resultPoints = barCode.getResultPoints();
+      if (resultPoints != null) {
+        for (ResultPoint resultPoint : resultPoints) {
+          if (resultPoint == null) {
+            continue;
+          }
+          WritableMap point = Arguments.createMap();
+          point.putDouble("x", resultPoint.getX());
+          point.putDouble("y", resultPoint.getY());
+          points.pushMap(point);
+        }
+      }
+      serializedBarCode.putArray("points", points);
+      serializedBarCodes.pushMap(serializedBarCode);
+    }
+    result.putArray("barCodes", serializedBarCodes);
+
+    WritableMap image = Arguments.createMap();
+    image.putInt("width", width);
+    image.putInt("height", height);
+    result.putMap("image", image);
+    return result;
+  }
+
+  private WritableMap serializeError(int index, String uri, String message) {
+    WritableMap result = createResult(index, uri);
+    result.putString("error", message);
+    return result;
+  }
+
+  private WritableMap createResult(int index, String uri) {
+    WritableMap result = Arguments.createMap();
+    result.putInt("batchId", mBatchId);
+    result.putInt("index", index);
+    result.putString("uri", uri);
+    return result;
+  }
+
+  private static List<String> toStringList(ReadableArray array) {
+    List<String> strings = new ArrayList<>(array.size());
+    for (int i = 0; i < array.size(); i++) {
+      strings.add(array.getString(i));
+    }
+    return strings;
+  }
+}
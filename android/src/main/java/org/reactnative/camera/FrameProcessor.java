@@ -0,0 +1,19 @@
+package org.reactnative.camera;
+
+/**
+ * Analyzer of camera preview frames, attached to an RNCameraView with
+ * {@link RNCameraView#addFrameProcessor(FrameProcessor, int, java.util.concurrent.Executor)}.
+ *
+ * Frames are delivered on the executor given at registration, one at a time: while the processor
+ * is busy only the most recent frame is kept for it and older ones are dropped.
+ */
+public interface FrameProcessor {
+  /**
+   * @param data NV21 preview data. The array is shared with every other processor and scanner
+   *             of the view, it must not be modified.
+   * @param width width of the frame, as delivered by the camera
+   * @param height height of the frame, as delivered by the camera
+   * @param rotation clockwise rotation, in degrees, making the frame upright (camera facing included)
+   */
+  void onFrame(byte[] data, int width, int height, int rotation);
+}
@@ -5,11 +5,13 @@ import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.graphics.Matrix;
+import android.graphics.Rect;
 import android.media.CamcorderProfile;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.v4.content.ContextCompat;
-import android.util.Log;
 import android.util.SparseArray;
 import android.view.View;
 
@@ -23,67 +25,131 @@ import com.google.android.cameraview.AspectRatio;
 import com.google.android.cameraview.CameraView;
 import com.google.android.gms.vision.face.Face;
 import com.google.zxing.BarcodeFormat;
-import com.google.zxing.DecodeHintType;
-import com.google.zxing.MultiFormatReader;
 import com.google.zxing.Result;
 
 import org.reactnative.camera.tasks.BarCodeScannerAsyncTask;
 import org.reactnative.camera.tasks.BarCodeScannerAsyncTaskDelegate;
 import org.reactnative.camera.tasks.FaceDetectorAsyncTask;
 import org.reactnative.camera.tasks.FaceDetectorAsyncTaskDelegate;
+import org.reactnative.camera.tasks.FaceDetectorWarmUpAsyncTask;
+import org.reactnative.camera.tasks.FaceDetectorWarmUpAsyncTaskDelegate;
 import org.reactnative.camera.tasks.ResolveTakenPictureAsyncTask;
+import org.reactnative.camera.tasks.ResolveTakenPictureAsyncTaskDelegate;
+import org.reactnative.camera.tasks.TaskExecutors;
+import org.reactnative.camera.utils.AdaptiveBarCodeReader;
+import org.reactnative.camera.utils.BarCodeDecoderSelector;
+import org.reactnative.camera.utils.BarCodeScanningCore;
+import org.reactnative.camera.utils.BarCodeTracker;
+import org.reactnative.camera.utils.BarCodeEmissionCache;
+import org.reactnative.camera.utils.BarCodeScanArea;
 import org.reactnative.camera.utils.BitmapRotate;
+import org.reactnative.camera.utils.CaptureLimiter;
+import org.reactnative.camera.utils.CaptureRequest;
+import org.reactnative.camera.utils.CaptureRequestQueue;
+import org.reactnative.camera.utils.DecodeLadder;
+import org.reactnative.camera.utils.FaceDeltaTracker;
+import org.reactnative.camera.utils.FrameMailbox;
+import org.reactnative.camera.utils.FrameProcessorRegistry;
+import org.reactnative.camera.utils.FrameThrottle;
 import org.reactnative.camera.utils.ImageDimensions;
+import org.reactnative.camera.utils.LuminancePyramid;
+import org.reactnative.camera.utils.PipelineStats;
+import org.reactnative.camera.utils.PreviewFrame;
+import org.reactnative.camera.utils.Tracer;
 import org.reactnative.camera.utils.RNFileUtils;
 import org.reactnative.camera.utils.YuvToBitmap;
+import org.reactnative.camera.utils.ZXingBarCodeDecoder;
+import org.reactnative.facedetector.FaceDetectorPool;
 import org.reactnative.facedetector.RNFaceDetector;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.util.EnumMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class RNCameraView extends CameraView implements LifecycleEventListener, BarCodeScannerAsyncTaskDelegate, FaceDetectorAsyncTaskDelegate {
+public class RNCameraView extends CameraView implements LifecycleEventListener, BarCodeScannerAsyncTaskDelegate, FaceDetectorAsyncTaskDelegate,
+    FaceDetectorWarmUpAsyncTaskDelegate {
   private ThemedReactContext mThemedReactContext;
-  private Queue<Promise> mPictureTakenPromises = new ConcurrentLinkedQueue<>();
-  private Map<Promise, ReadableMap> mPictureTakenOptions = new ConcurrentHashMap<>();
-  private Map<Promise, File> mPictureTakenDirectories = new ConcurrentHashMap<>();
+  private final CaptureRequestQueue mCaptureRequests = new CaptureRequestQueue();
+  // Requests of the pictures being taken by super.takePicture(), in call order. The camera
+  // delivers pictures in that order, so each picture belongs to the head of this queue.
+  private final ArrayDeque<CaptureRequest> mNativeCaptures = new ArrayDeque<>();
+  private final Handler mCaptureTimeoutHandler = new Handler(Looper.getMainLooper());
   private Promise mVideoRecordedPromise;
   private List<String> mBarCodeTypes = null;
+  private Set<BarcodeFormat> mBarCodeFormats = EnumSet.noneOf(BarcodeFormat.class);
   private YuvToBitmap mYuvToBitmap = null;
   private BitmapRotate mBitmapRotate = null;
   private Matrix mRotationMatrix = null;
   private int mLastRotation = -1;
+  private final Object mConversionLock = new Object();
+
+  // Preview-snapshot captures: bounds how many pictures are converted and encoded at once
+  private static final int DEFAULT_MAX_IN_FLIGHT_CAPTURES = 2;
+  private final CaptureLimiter mCaptureLimiter = new CaptureLimiter(DEFAULT_MAX_IN_FLIGHT_CAPTURES);
+  private final Object mCaptureLock = new Object();
+  private static final long DEFAULT_CAPTURE_TIMEOUT_MILLIS = 10000;
 
   private boolean mIsPaused = false;
   private boolean mIsNew = true;
   private AspectRatio mAspectRatio;
   private boolean mAutoAspectRatio = false;
 
-  // Concurrency lock for scanners to avoid flooding the runtime
-  public volatile boolean barCodeScannerTaskLock = false;
-  public volatile boolean faceDetectorTaskLock = false;
+  // Latest-frame-wins mailboxes feeding the scanners, one task at a time each
+  private final FrameMailbox mBarCodeScannerMailbox = new FrameMailbox();
+  private final FrameMailbox mFaceDetectorMailbox = new FrameMailbox();
+  private final FrameThrottle mBarCodeScannerThrottle = new FrameThrottle();
+  private final FrameThrottle mFaceDetectorThrottle = new FrameThrottle();
+
+  // Analyzers attached by other native modules
+  private final FrameProcessorRegistry mFrameProcessors = new FrameProcessorRegistry();
+
+  private final PipelineStats mPipelineStats = new PipelineStats();
 
   // Scanning-related properties
-  private final MultiFormatReader mMultiFormatReader = new MultiFormatReader();
+  private final AdaptiveBarCodeReader mBarCodeReader = new AdaptiveBarCodeReader();
   private final RNFaceDetector mFaceDetector;
   private boolean mShouldDetectFaces = false;
   private boolean mShouldScanBarCodes = false;
+  private volatile BarCodeScanArea mBarCodeScanArea = null;
+  private final LuminancePyramid mBarCodePyramid = new LuminancePyramid();
+  private final DecodeLadder mBarCodeDecodeLadder = new DecodeLadder(mBarCodeScannerMailbox);
+  private volatile boolean mMultipleBarCodesEnabled = false;
+  // Codes found in the last frame scanned in multiple mode, as format + text
+  private Set<String> mLastBarCodes = new HashSet<>();
+  private final BarCodeEmissionCache mBarCodeEmissionCache = new BarCodeEmissionCache();
+  private final BarCodeTracker mBarCodeTracker = new BarCodeTracker();
+  private final BarCodeDecoderSelector mBarCodeDecoders;
   private int mFaceDetectorMode = RNFaceDetector.FAST_MODE;
   private int mFaceDetectionLandmarks = RNFaceDetector.NO_LANDMARKS;
   private int mFaceDetectionClassifications = RNFaceDetector.NO_CLASSIFICATIONS;
+  private volatile int mFaceDetectionResolution = 0;
+  private boolean mFaceDeltasEnabled = false;
+  // Whether only onFacesChanged is listened to, onFacesDetected events are not sent then
+  private boolean mFaceDeltasOnly = false;
+  private final FaceDeltaTracker mFaceDeltaTracker = new FaceDeltaTracker();
+  // Landmark types of the compact onFacesDetected format, null for face maps
+  private int[] mCompactFaceLandmarks = null;
+  // Milliseconds taken by the last face detector warm-up, -1 until one is done
+  private double mFaceDetectorWarmUpTime = -1;
+  // Warm-ups started and not finished yet, the ready event reports no warm-up time meanwhile
+  private int mFaceDetectorWarmUpsPending = 0;
+  // Face detector settings changed during the current props update, warmed up once it is applied
+  private boolean mFaceDetectorWarmUpNeeded = false;
 
   private Bitmap mTestBitmap;
 
   public RNCameraView(ThemedReactContext themedReactContext) {
     super(themedReactContext, true);
+    mBarCodeDecoders = new BarCodeDecoderSelector(themedReactContext,
+        new ZXingBarCodeDecoder(mBarCodeReader, mBarCodePyramid, mBarCodeDecodeLadder));
     initBarcodeReader();
     mThemedReactContext = themedReactContext;
     mFaceDetector = new RNFaceDetector(themedReactContext);
@@ -93,7 +159,7 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
     addCallback(new Callback() {
       @Override
       public void onCameraOpened(CameraView cameraView) {
-        RNCameraViewHelper.emitCameraReadyEvent(cameraView);
+        RNCameraViewHelper.emitCameraReadyEvent(cameraView, mFaceDetectorWarmUpsPending > 0 ? -1 : mFaceDetectorWarmUpTime);
 
         relayoutPreview(getLeft(), getTop(), getRight(), getBottom());
       }
@@ -105,10 +171,21 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
 
       @Override
       public void onPictureTaken(CameraView cameraView, final byte[] data) {
-        Promise promise = mPictureTakenPromises.poll();
-        ReadableMap options = mPictureTakenOptions.remove(promise);
-        final File cacheDirectory = mPictureTakenDirectories.remove(promise);
-        new ResolveTakenPictureAsyncTask(data, promise, options, cacheDirectory).execute();
+        CaptureRequest nativeCapture;
+        synchronized (mNativeCaptures) {
+          nativeCapture = mNativeCaptures.poll();
+        }
+        if (nativeCapture == null) {
+          return;
+        }
+        List<CaptureRequest> requests = mCaptureRequests.start(nativeCapture);
+        if (requests.isEmpty()) {
+          // The request of this picture timed out or was cancelled, the picture is not wanted anymore
+          return;
+        }
+        CaptureRequest request = requests.get(0);
+        recordCaptureQueueLatency(request);
+        new ResolveTakenPictureAsyncTask(data, request.getPromise(), request.getOptions(), request.getCacheDirectory(), mPipelineStats).executeOnExecutor(TaskExecutors.CAPTURE);
       }
 
       @Override
@@ -125,106 +202,34 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
         }
       }
 
-      private void yuvToBitmapNeeded() {
-        if (mYuvToBitmap == null) {
-          mYuvToBitmap = new YuvToBitmap(getContext());
-        }
-      }
-
-      private void bitmapRotateNeeded() {
-        if (mBitmapRotate == null) {
-          mBitmapRotate = new BitmapRotate(getContext());
-        }
-      }
-
       @Override
       public void onFramePreview(CameraView cameraView, final byte[] data, final int width, final int height, final int rotation) {
         if (useTakePicture()) return;
 
+        mPipelineStats.recordFrameReceived();
         final int correctRotation = RNCameraViewHelper.getCorrectCameraRotation(rotation, getFacing());
 
-        if (mShouldScanBarCodes && !barCodeScannerTaskLock && cameraView instanceof BarCodeScannerAsyncTaskDelegate) {
-          barCodeScannerTaskLock = true;
-          BarCodeScannerAsyncTaskDelegate delegate = (BarCodeScannerAsyncTaskDelegate) cameraView;
-          new BarCodeScannerAsyncTask(delegate, mMultiFormatReader, data, width, height).execute();
-        }
+        if (mShouldScanBarCodes || mShouldDetectFaces || !mFrameProcessors.isEmpty()) {
+          PreviewFrame frame = new PreviewFrame(data, width, height, correctRotation, System.nanoTime());
 
-        if (mShouldDetectFaces && !faceDetectorTaskLock && cameraView instanceof FaceDetectorAsyncTaskDelegate) {
-          faceDetectorTaskLock = true;
-          FaceDetectorAsyncTaskDelegate delegate = (FaceDetectorAsyncTaskDelegate) cameraView;
-          new FaceDetectorAsyncTask(delegate, mFaceDetector, data, width, height, correctRotation).execute();
-        }
-
-        final Promise promise = mPictureTakenPromises.poll();
-
-        if (promise != null) {
-          Log.d("ROTATION", "" + rotation + " (correct: " + correctRotation + ")");
-
-          yuvToBitmapNeeded();
-
-          Thread thread = new Thread() {
-            @Override
-            public void run() {
-              Log.d("PROFILE", "***************");
-              long start = System.nanoTime();
-              // Get RGB
-              mYuvToBitmap.refreshBitmap(data, width, height);
-              long elapsedTime = System.nanoTime() - start;
-              Log.d("PROFILE", "Get RGB: " + elapsedTime / 1E6);
-
-              boolean testRotation = false;
-              Bitmap rotated;
-              if (!testRotation && correctRotation == 0) { /////////////!!!!!
-                rotated = mYuvToBitmap.getBimap();
-              } else {
-                // Rotate
-                boolean useRenderScript = false;
-                if (testRotation || useRenderScript) {
-                  boolean useAllocation = false;
-                  Log.d("PROFILE", "Rotation: " + rotation + " (correctRotation: " + correctRotation + ")");
-                  bitmapRotateNeeded();
-                  if (!testRotation && useAllocation) {
-                    rotated = mBitmapRotate.refreshBitmap(mYuvToBitmap.getOut(), correctRotation);
-                  } else {
-                    if (testRotation) {
-                      if (mTestBitmap == null) {
-                        Bitmap yuv = mYuvToBitmap.getBimap();
-                        mTestBitmap = Bitmap.createBitmap(yuv.getWidth(), yuv.getHeight(), Bitmap.Config.ARGB_8888);
-                        int color = 0xFF000000;
-                        int[] pixels = new int[width * height];
-                        for (int i=0; i<width * height; i++) {
-                          pixels[i] = color++;
-                        }
-                        mTestBitmap.setPixels(pixels, 0, yuv.getWidth(), 0, 0, yuv.getWidth(), yuv.getHeight());
-                      }
-                      rotated = mBitmapRotate.refreshBitmap(mTestBitmap, correctRotation);
-
-                    } else {
-                      rotated = mBitmapRotate.refreshBitmap(mYuvToBitmap.getBimap(), correctRotation);
-                    }
-                  }
-                } else {
-                  if (mLastRotation != correctRotation) {
-                    mLastRotation = correctRotation;
-                    mRotationMatrix = new Matrix();
-                    mRotationMatrix.postRotate(correctRotation);
-                  }
-                  Bitmap bitmap = mYuvToBitmap.getBimap();
-                  rotated = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), mRotationMatrix, false);
-                }
-              }
-
-              elapsedTime = System.nanoTime() - start;
-              Log.d("PROFILE", "Rotate: " + elapsedTime / 1E6);
+          if (mShouldScanBarCodes && mBarCodeScannerThrottle.accept(frame.getTimestamp())) {
+            PreviewFrame barCodeFrame = mBarCodeScannerMailbox.post(frame);
+            if (barCodeFrame != null) {
+              scanBarCodes(barCodeFrame);
+            }
+          }
 
-                // Resolve
-              ReadableMap options = mPictureTakenOptions.remove(promise);
-              final File cacheDirectory = mPictureTakenDirectories.remove(promise);
-              new ResolveTakenPictureAsyncTask(rotated, promise, options, cacheDirectory).execute();
+          if (mShouldDetectFaces && mFaceDetectorThrottle.accept(frame.getTimestamp())) {
+            PreviewFrame faceFrame = mFaceDetectorMailbox.post(frame);
+            if (faceFrame != null) {
+              detectFaces(faceFrame);
             }
-          };
-          thread.start();
+          }
+
+          mFrameProcessors.dispatch(frame);
         }
+
+        startPreviewCapture(data, width, height, correctRotation);
       }
     });
   }
@@ -361,13 +366,187 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
     return usingCamera2();
   }
 
+  private void yuvToBitmapNeeded() {
+    if (mYuvToBitmap == null) {
+      mYuvToBitmap = new YuvToBitmap(getContext());
+    }
+  }
+
+  private void bitmapRotateNeeded() {
+    if (mBitmapRotate == null) {
+      mBitmapRotate = new BitmapRotate(getContext());
+    }
+  }
+
+  /**
+   * Starts a capture from the preview frame if a picture is waiting and the capture limit allows it.
+   * Pictures coalesced with the started request are produced from the same frame.
+   */
+  private void startPreviewCapture(final byte[] data, final int width, final int height, final int correctRotation) {
+    final List<CaptureRequest> requests;
+    synchronized (mCaptureLock) {
+      if (mCaptureRequests.isEmpty() || !mCaptureLimiter.tryAcquire()) {
+        return;
+      }
+      requests = mCaptureRequests.start();
+      if (requests.isEmpty()) {
+        mCaptureLimiter.release();
+        return;
+      }
+    }
+    for (CaptureRequest request : requests) {
+      recordCaptureQueueLatency(request);
+    }
+
+    TaskExecutors.CAPTURE.execute(new Runnable() {
+      @Override
+      public void run() {
+        Bitmap rotated;
+        try {
+          rotated = convertPreviewFrame(data, width, height, correctRotation);
+        } catch (RuntimeException e) {
+          mCaptureLimiter.release();
+          for (CaptureRequest request : requests) {
+            request.getPromise().reject("E_TAKING_PICTURE_FAILED", "Could not convert the preview frame", e);
+          }
+          return;
+        }
+
+        // Resolve, releasing the capture slot once every picture of the group is done
+        final AtomicInteger remaining = new AtomicInteger(requests.size());
+        ResolveTakenPictureAsyncTaskDelegate delegate = new ResolveTakenPictureAsyncTaskDelegate() {
+          @Override
+          public void onTakenPictureResolved() {
+            if (remaining.decrementAndGet() == 0) {
+              mCaptureLimiter.release();
+            }
+          }
+        };
+        for (CaptureRequest request : requests) {
+          new ResolveTakenPictureAsyncTask(rotated, request.getPromise(), request.getOptions(), request.getCacheDirectory(), mPipelineStats, delegate).executeOnExecutor(TaskExecutors.CAPTURE);
+        }
+      }
+    });
+  }
+
+  private void recordCaptureQueueLatency(CaptureRequest request) {
+    mPipelineStats.recordStage(PipelineStats.STAGE_CAPTURE_QUEUE, System.nanoTime() - request.getSubmitTime());
+  }
+
+  /**
+   * Converts a preview frame to an upright bitmap owned by the caller.
+   * The converters belong to the view, so conversions run one at a time.
+   */
+  private Bitmap convertPreviewFrame(byte[] data, int width, int height, int correctRotation) {
+    synchronized (mConversionLock) {
+      yuvToBitmapNeeded();
+
+      // Get RGB
+      long traceStart = Tracer.begin(Tracer.CAPTURE_YUV_TO_RGB);
+      mYuvToBitmap.refreshBitmap(data, width, height);
+      Tracer.end(Tracer.CAPTURE_YUV_TO_RGB, traceStart);
+
+      traceStart = Tracer.begin(Tracer.CAPTURE_ROTATE);
+      boolean testRotation = false;
+      Bitmap rotated;
+      if (!testRotation && correctRotation == 0) { /////////////!!!!!
+        // The converter reuses its bitmap for the next frame, so the picture gets its own copy
+        Bitmap bitmap = mYuvToBitmap.getBimap();
+        rotated = bitmap.copy(bitmap.getConfig(), false);
+      } else {
+        // Rotate
+        boolean useRenderScript = false;
+        if (testRotation || useRenderScript) {
+          boolean useAllocation = false;
+          bitmapRotateNeeded();
+          if (!testRotation && useAllocation) {
+            rotated = mBitmapRotate.refreshBitmap(mYuvToBitmap.getOut(), correctRotation);
+          } else {
+            if (testRotation) {
+              if (mTestBitmap == null) {
+                Bitmap yuv = mYuvToBitmap.getBimap();
+                mTestBitmap = Bitmap.createBitmap(yuv.getWidth(), yuv.getHeight(), Bitmap.Config.ARGB_8888);
+                int color = 0xFF000000;
+                int[] pixels = new int[width * height];
+                for (int i=0; i<width * height; i++) {
+                  pixels[i] = color++;
+                }
+                mTestBitmap.setPixels(pixels, 0, yuv.getWidth(), 0, 0, yuv.getWidth(), yuv.getHeight());
+              }
+              rotated = mBitmapRotate.refreshBitmap(mTestBitmap, correctRotation);
+
+            } else {
+              rotated = mBitmapRotate.refreshBitmap(mYuvToBitmap.getBimap(), correctRotation);
+            }
+          }
+        } else {
+          if (mLastRotation != correctRotation) {
+            mLastRotation = correctRotation;
+            mRotationMatrix = new Matrix();
+            mRotationMatrix.postRotate(correctRotation);
+          }
+          Bitmap bitmap = mYuvToBitmap.getBimap();
+          rotated = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), mRotationMatrix, false);
+        }
+      }
+
+      Tracer.end(Tracer.CAPTURE_ROTATE, traceStart);
+      return rotated;
+    }
+  }
+
   public void takePicture(ReadableMap options, final Promise promise, File cacheDirectory) {
-    mPictureTakenPromises.add(promise);
-    mPictureTakenOptions.put(promise, options);
-    mPictureTakenDirectories.put(promise, cacheDirectory);
+    long timeout = options.hasKey("timeout") ? (long) options.getDouble("timeout") : DEFAULT_CAPTURE_TIMEOUT_MILLIS;
+    final CaptureRequest request = new CaptureRequest(promise, options, cacheDirectory, timeout);
+
     if (useTakePicture()) {
+      mCaptureRequests.add(request);
+      synchronized (mNativeCaptures) {
+        mNativeCaptures.add(request);
+      }
+      scheduleCaptureTimeout(request);
       super.takePicture();
+      return;
+    }
+
+    synchronized (mCaptureLock) {
+      if (mCaptureLimiter.isFull(mCaptureRequests.size())) {
+        int policy = mCaptureLimiter.getPolicy();
+        if (policy == CaptureLimiter.POLICY_REJECT) {
+          promise.reject("E_CAPTURE_BUSY", "Too many pictures are already being taken");
+          return;
+        }
+        CaptureRequest lastRequest = mCaptureRequests.peekLast();
+        if (policy == CaptureLimiter.POLICY_COALESCE && lastRequest != null) {
+          lastRequest.coalesce(request);
+          scheduleCaptureTimeout(request);
+          return;
+        }
+      }
+      mCaptureRequests.add(request);
     }
+    scheduleCaptureTimeout(request);
+  }
+
+  private void scheduleCaptureTimeout(final CaptureRequest request) {
+    if (request.getDeadline() == 0) {
+      return;
+    }
+    long delay = (request.getDeadline() - System.nanoTime()) / 1000000L;
+    mCaptureTimeoutHandler.postDelayed(new Runnable() {
+      @Override
+      public void run() {
+        mCaptureRequests.expire(request, System.nanoTime());
+      }
+    }, Math.max(0, delay));
+  }
+
+  public void setMaxInFlightCaptures(int maxInFlightCaptures) {
+    mCaptureLimiter.setMaxInFlight(maxInFlightCaptures);
+  }
+
+  public void setCaptureOverflowPolicy(String policy) {
+    mCaptureLimiter.setPolicy(CaptureLimiter.parsePolicy(policy));
   }
 
   public void record(ReadableMap options, final Promise promise, File cacheDirectory) {
@@ -395,43 +574,172 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
 
   /**
    * Initialize the barcode decoder.
-   * Supports all iOS codes except [code138, code39mod43, itf14]
-   * Additionally supports [codabar, code128, maxicode, rss14, rssexpanded, upc_a, upc_ean]
+   * Types are parsed by BarCodeScanningCore, like the legacy RCTCamera's, and no type means all types.
    */
   private void initBarcodeReader() {
-    EnumMap<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
-    EnumSet<BarcodeFormat> decodeFormats = EnumSet.noneOf(BarcodeFormat.class);
-
-    if (mBarCodeTypes != null) {
-      for (String code : mBarCodeTypes) {
-        String formatString = (String) CameraModule.VALID_BARCODE_TYPES.get(code);
-        if (formatString != null) {
-          decodeFormats.add(BarcodeFormat.valueOf(code));
-        }
-      }
-    }
+    mBarCodeFormats = BarCodeScanningCore.parseFormats(mBarCodeTypes);
+    mBarCodeReader.setHints(BarCodeScanningCore.hintsFor(mBarCodeFormats, false));
+    mBarCodeDecoders.setFormats(mBarCodeFormats);
+  }
 
-    hints.put(DecodeHintType.POSSIBLE_FORMATS, decodeFormats);
-    mMultiFormatReader.setHints(hints);
+  /**
+   * Attaches a frame processor receiving every preview frame, on the shared frame processor executor.
+   */
+  public void addFrameProcessor(FrameProcessor processor) {
+    addFrameProcessor(processor, 0, TaskExecutors.FRAME_PROCESSOR);
+  }
+
+  /**
+   * Attaches a frame processor receiving at most targetFps frames per second (0 for no limit),
+   * on the given executor.
+   */
+  public void addFrameProcessor(FrameProcessor processor, double targetFps, Executor executor) {
+    mFrameProcessors.add(processor, targetFps, executor);
+    updateScanning();
+  }
+
+  public void removeFrameProcessor(FrameProcessor processor) {
+    mFrameProcessors.remove(processor);
+    updateScanning();
+  }
+
+  private void updateScanning() {
+    setScanning(mShouldDetectFaces || mShouldScanBarCodes || !mFrameProcessors.isEmpty());
   }
 
   public void setShouldScanBarCodes(boolean shouldScanBarCodes) {
     this.mShouldScanBarCodes = shouldScanBarCodes;
-    setScanning(mShouldDetectFaces || mShouldScanBarCodes);
+    if (!shouldScanBarCodes) {
+      mBarCodeScannerMailbox.clear();
+      mBarCodeEmissionCache.clear();
+      mBarCodeTracker.reset();
+    }
+    updateScanning();
+  }
+
+  /**
+   * Minimum time between two frames analyzed by the bar code scanner, 0 for no limit.
+   */
+  public void setBarCodeScanInterval(int interval) {
+    mBarCodeScannerThrottle.setMinInterval(interval);
+  }
+
+  public void setBarCodeScanArea(BarCodeScanArea scanArea) {
+    mBarCodeScanArea = scanArea;
+  }
+
+  public void setBarCodeDownsampling(int factor) {
+    mBarCodePyramid.setFactor(factor);
+  }
+
+  private void scanBarCodes(PreviewFrame frame) {
+    Rect frameRegion = null;
+    BarCodeScanArea scanArea = mBarCodeScanArea;
+    if (scanArea != null) {
+      frameRegion = scanArea.toFrameRect(frame.getWidth(), frame.getHeight(), frame.getRotation(),
+          getWidth(), getHeight(), getFacing() == CameraView.FACING_FRONT);
+    }
+    if (mBarCodeTracker.isEnabled()) {
+      frameRegion = mBarCodeTracker.predict(frame.getWidth(), frame.getHeight(),
+          frameRegion != null ? frameRegion : new Rect(0, 0, frame.getWidth(), frame.getHeight()));
+    }
+    new BarCodeScannerAsyncTask(this, mBarCodeDecoders, frame.getData(), frame.getWidth(), frame.getHeight(),
+        frameRegion, mMultipleBarCodesEnabled, mBarCodeTracker, frame.getTimestamp(), mPipelineStats)
+        .executeOnExecutor(TaskExecutors.BAR_CODE);
   }
 
   public void onBarCodeRead(Result barCode) {
     String barCodeType = barCode.getBarcodeFormat().toString();
-    if (!mShouldScanBarCodes || !mBarCodeTypes.contains(barCodeType)) {
+    if (!mShouldScanBarCodes || !isBarCodeFormatRequested(barCode.getBarcodeFormat())) {
+      return;
+    }
+    if (!mBarCodeEmissionCache.shouldEmit(barCodeType, barCode.getText(), System.nanoTime())) {
       return;
     }
 
     RNCameraViewHelper.emitBarCodeReadEvent(this, barCode);
   }
 
+  /**
+   * @param suppressionWindow milliseconds during which repeated sightings of a code are not sent, 0 to send all
+   * @param maxEntries number of distinct codes remembered
+   * @param heartbeatInterval milliseconds between two sendings of a code kept in view, 0 for none
+   */
+  public void setBarCodeDebounce(int suppressionWindow, int maxEntries, int heartbeatInterval) {
+    mBarCodeEmissionCache.configure(suppressionWindow, maxEntries, heartbeatInterval);
+  }
+
+  /**
+   * Tries the most recently read formats first and the heavyweight 2D formats less often.
+   */
+  public void setAdaptiveBarCodeFormats(boolean adaptive) {
+    mBarCodeReader.setAdaptive(adaptive);
+  }
+
+  public void setBarCodeDecodeLadder(boolean enabled, int hybridInterval, int missThreshold) {
+    mBarCodeDecodeLadder.configure(enabled, hybridInterval, missThreshold);
+  }
+
+  /**
+   * @param padding margin added around the predicted code position, as a fraction of the code's size
+   * @param maxMisses frames without read in the predicted window before the whole frame is searched again
+   */
+  public void setBarCodeTracking(boolean enabled, float padding, int maxMisses) {
+    mBarCodeTracker.configure(enabled, padding, maxMisses);
+  }
+
+  /**
+   * @param mode "zxing", "vision", or "auto" to keep the faster of both on this device
+   */
+  public void setBarCodeDecoder(String mode) {
+    mBarCodeDecoders.setMode(mode);
+  }
+
+  public void setMultipleBarCodesEnabled(boolean multipleBarCodesEnabled) {
+    mMultipleBarCodesEnabled = multipleBarCodesEnabled;
+  }
+
+  public void onBarCodesRead(Result[] barCodes) {
+    if (!mShouldScanBarCodes) {
+      return;
+    }
+
+    List<Result> readBarCodes = new ArrayList<>(barCodes.length);
+    Set<String> readKeys = new HashSet<>();
+    boolean debounced = mBarCodeEmissionCache.isEnabled();
+    // With debouncing, the event still lists every code of the frame, flagging those passing it
+    Set<Result> newBarCodes = debounced ? new HashSet<Result>() : null;
+    long now = System.nanoTime();
+    for (Result barCode : barCodes) {
+      String barCodeType = barCode.getBarcodeFormat().toString();
+      if (isBarCodeFormatRequested(barCode.getBarcodeFormat()) && readKeys.add(barCodeType + ":" + barCode.getText())) {
+        readBarCodes.add(barCode);
+        if (debounced && mBarCodeEmissionCache.shouldEmit(barCodeType, barCode.getText(), now)) {
+          newBarCodes.add(barCode);
+        }
+      }
+    }
+
+    // Holding the same codes in view does not repeat the event
+    if (debounced ? newBarCodes.isEmpty() : readKeys.equals(mLastBarCodes)) {
+      return;
+    }
+    mLastBarCodes = readKeys;
+    if (!readBarCodes.isEmpty()) {
+      RNCameraViewHelper.emitBarCodesReadEvent(this, readBarCodes, newBarCodes);
+    }
+  }
+
+  private boolean isBarCodeFormatRequested(BarcodeFormat format) {
+    return mBarCodeFormats.isEmpty() || mBarCodeFormats.contains(format);
+  }
+
   public void onBarCodeScanningTaskCompleted() {
-    barCodeScannerTaskLock = false;
-    mMultiFormatReader.reset();
+    mBarCodeReader.reset();
+    PreviewFrame nextFrame = mBarCodeScannerMailbox.complete();
+    if (nextFrame != null) {
+      scanBarCodes(nextFrame);
+    }
   }
 
   /**
@@ -448,6 +756,7 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
     mFaceDetectionLandmarks = landmarks;
     if (mFaceDetector != null) {
       mFaceDetector.setLandmarkType(landmarks);
+      mFaceDetectorWarmUpNeeded = true;
     }
   }
 
@@ -455,6 +764,7 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
     mFaceDetectionClassifications = classifications;
     if (mFaceDetector != null) {
       mFaceDetector.setClassificationType(classifications);
+      mFaceDetectorWarmUpNeeded = true;
     }
   }
 
@@ -462,15 +772,93 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
     mFaceDetectorMode = mode;
     if (mFaceDetector != null) {
       mFaceDetector.setMode(mode);
+      mFaceDetectorWarmUpNeeded = true;
     }
   }
 
   public void setShouldDetectFaces(boolean shouldDetectFaces) {
     this.mShouldDetectFaces = shouldDetectFaces;
-    setScanning(mShouldDetectFaces || mShouldScanBarCodes);
+    if (!shouldDetectFaces) {
+      mFaceDetectorMailbox.clear();
+      mFaceDeltaTracker.reset();
+      mFaceDetectorWarmUpTime = -1;
+    } else {
+      mFaceDetectorWarmUpNeeded = true;
+    }
+    updateScanning();
   }
 
-  public void onFacesDetected(SparseArray<Face> facesReported, int sourceWidth, int sourceHeight, int sourceRotation) {
+  /**
+   * Called once the props of an update are set. Builds the face detector in the background while
+   * the camera opens, ahead of the first frame. Settings changes drop the detector, so they warm up
+   * the new one too, once for all the settings of the update. A camera opening meanwhile is
+   * reported ready right away, the warm-up time is then only found in the pipeline stats.
+   */
+  public void warmUpFaceDetectorIfNeeded() {
+    if (!mFaceDetectorWarmUpNeeded) {
+      return;
+    }
+    mFaceDetectorWarmUpNeeded = false;
+    if (!mShouldDetectFaces) {
+      return;
+    }
+    mFaceDetectorWarmUpsPending++;
+    new FaceDetectorWarmUpAsyncTask(this, mFaceDetector).executeOnExecutor(TaskExecutors.FACE_DETECTION);
+  }
+
+  public void onFaceDetectorWarmedUp(boolean operational, double duration) {
+    mFaceDetectorWarmUpTime = duration;
+    mFaceDetectorWarmUpsPending--;
+  }
+
+  public void setFaceDeltasEnabled(boolean enabled) {
+    if (enabled != mFaceDeltasEnabled) {
+      mFaceDeltaTracker.reset();
+    }
+    mFaceDeltasEnabled = enabled;
+  }
+
+  /**
+   * @param onlyDeltas whether to send face deltas instead of every detection result
+   */
+  public void setFaceDeltasOnly(boolean onlyDeltas) {
+    mFaceDeltasOnly = onlyDeltas;
+  }
+
+  /**
+   * @param landmarkTypes landmarks sent with each face in the compact format, null to send face maps
+   */
+  public void setCompactFaceEvents(int[] landmarkTypes) {
+    mCompactFaceLandmarks = landmarkTypes;
+  }
+
+  /**
+   * @param threshold view points a side of a face's bounds has to move by for the face to be updated
+   */
+  public void setFaceDeltaThreshold(float threshold) {
+    mFaceDeltaTracker.setThreshold(threshold);
+  }
+
+  /**
+   * Minimum time between two frames analyzed by the face detector, 0 for no limit.
+   */
+  public void setFaceDetectionInterval(int interval) {
+    mFaceDetectorThrottle.setMinInterval(interval);
+  }
+
+  /**
+   * @param resolution length of the shorter side of the frames analyzed for faces, 0 for full resolution frames
+   */
+  public void setFaceDetectionResolution(int resolution) {
+    mFaceDetectionResolution = resolution;
+  }
+
+  private void detectFaces(PreviewFrame frame) {
+    new FaceDetectorAsyncTask(this, mFaceDetector, frame.getData(), frame.getWidth(), frame.getHeight(), frame.getRotation(),
+        mFaceDetectionResolution, frame.getTimestamp(), mPipelineStats).executeOnExecutor(TaskExecutors.FACE_DETECTION);
+  }
+
+  public void onFacesDetected(SparseArray<Face> facesReported, int sourceWidth, int sourceHeight, int sourceRotation, int analysisScale) {
     if (!mShouldDetectFaces) {
       return;
     }
@@ -478,7 +866,12 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
     SparseArray<Face> facesDetected = facesReported == null ? new SparseArray<Face>() : facesReported;
 
     ImageDimensions dimensions = new ImageDimensions(sourceWidth, sourceHeight, sourceRotation, getFacing());
-    RNCameraViewHelper.emitFacesDetectedEvent(this, facesDetected, dimensions);
+    if (!mFaceDeltasEnabled || !mFaceDeltasOnly) {
+      RNCameraViewHelper.emitFacesDetectedEvent(this, facesDetected, dimensions, analysisScale, mCompactFaceLandmarks);
+    }
+    if (mFaceDeltasEnabled) {
+      RNCameraViewHelper.emitFaceDeltasEvent(this, facesDetected, dimensions, analysisScale, mFaceDeltaTracker);
+    }
   }
 
   public void onFaceDetectionError(RNFaceDetector faceDetector) {
@@ -491,7 +884,54 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
 
   @Override
   public void onFaceDetectingTaskCompleted() {
-    faceDetectorTaskLock = false;
+    PreviewFrame nextFrame = mFaceDetectorMailbox.complete();
+    if (nextFrame != null) {
+      detectFaces(nextFrame);
+    }
+  }
+
+  public WritableMap getPipelineStats() {
+    WritableMap stats = mPipelineStats.toMap();
+    WritableMap barCodeStats = getAnalyzerStats(PipelineStats.STAGE_BAR_CODE_DECODE, mBarCodeScannerMailbox, mBarCodeScannerThrottle);
+    barCodeStats.putArray("formats", mBarCodeReader.getFormatStats());
+    barCodeStats.putMap("tiers", mBarCodeDecodeLadder.toMap());
+    barCodeStats.putMap("tracking", mBarCodeTracker.toMap());
+    barCodeStats.putMap("decoder", mBarCodeDecoders.toMap());
+    stats.putMap("barCode", barCodeStats);
+    WritableMap faceDetectionStats = getAnalyzerStats(PipelineStats.STAGE_FACE_DETECTION, mFaceDetectorMailbox, mFaceDetectorThrottle);
+    faceDetectionStats.putMap("detectorPool", FaceDetectorPool.getStats());
+    if (mFaceDetectorWarmUpsPending == 0 && mFaceDetectorWarmUpTime >= 0) {
+      faceDetectionStats.putDouble("warmUpTime", mFaceDetectorWarmUpTime);
+    } else {
+      faceDetectionStats.putNull("warmUpTime");
+    }
+    stats.putMap("faceDetection", faceDetectionStats);
+    WritableMap captureStats = Arguments.createMap();
+    captureStats.putInt("waiting", mCaptureRequests.size());
+    captureStats.putInt("inFlight", mCaptureLimiter.getInFlight());
+    stats.putMap("capture", captureStats);
+    stats.putMap("executors", TaskExecutors.getStatus());
+    return stats;
+  }
+
+  private WritableMap getAnalyzerStats(int stage, FrameMailbox mailbox, FrameThrottle throttle) {
+    WritableMap analyzerStats = Arguments.createMap();
+    analyzerStats.putDouble("processed", mPipelineStats.getStage(stage).getCount());
+    analyzerStats.putDouble("dropped", mailbox.getDroppedCount());
+    analyzerStats.putDouble("skipped", throttle.getSkippedCount());
+    return analyzerStats;
+  }
+
+  public void resetPipelineStats() {
+    mPipelineStats.reset();
+    mBarCodeScannerMailbox.resetDroppedCount();
+    mBarCodeScannerThrottle.resetSkippedCount();
+    mBarCodeReader.resetFormatStats();
+    mBarCodeDecodeLadder.reset();
+    mBarCodeTracker.resetStats();
+    mFaceDetectorMailbox.resetDroppedCount();
+    mFaceDetectorThrottle.resetSkippedCount();
+    FaceDetectorPool.resetStats();
   }
 
   @Override
@@ -519,12 +959,25 @@ public class RNCameraView extends CameraView implements LifecycleEventListener,
     if (!mIsPaused && isCameraOpened()) {
       mIsPaused = true;
       stop();
+      // Pictures being taken are lost with the camera
+      synchronized (mNativeCaptures) {
+        mNativeCaptures.clear();
+      }
     }
   }
 
   @Override
   public void onHostDestroy() {
+    mCaptureTimeoutHandler.removeCallbacksAndMessages(null);
+    mCaptureRequests.cancelAll();
+    synchronized (mNativeCaptures) {
+      mNativeCaptures.clear();
+    }
+    mFrameProcessors.clear();
     mFaceDetector.release();
+    // The host is going away, free the native detectors kept for later views
+    FaceDetectorPool.clear();
+    mBarCodeDecoders.release();
     stop();
   }
 
@@ -24,16 +24,21 @@ import com.google.android.gms.vision.face.Face;
 import com.google.zxing.Result;
 
 import org.reactnative.camera.events.BarCodeReadEvent;
+import org.reactnative.camera.events.BarCodesReadEvent;
 import org.reactnative.camera.events.CameraMountErrorEvent;
 import org.reactnative.camera.events.CameraReadyEvent;
+import org.reactnative.camera.events.FaceDeltasEvent;
 import org.reactnative.camera.events.FaceDetectionErrorEvent;
 import org.reactnative.camera.events.FacesDetectedEvent;
+import org.reactnative.camera.utils.FaceDeltaTracker;
 import org.reactnative.camera.utils.ImageDimensions;
 import org.reactnative.facedetector.RNFaceDetector;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 public class RNCameraViewHelper {
 
@@ -178,8 +183,11 @@ public class RNCameraViewHelper {
 
   // Camera ready event
 
-  public static void emitCameraReadyEvent(ViewGroup view) {
-    CameraReadyEvent event = CameraReadyEvent.obtain(view.getId());
+  /**
+   * @param faceDetectorWarmUpTime milliseconds taken by the face detector warm-up, -1 if none is done
+   */
+  public static void emitCameraReadyEvent(ViewGroup view, double faceDetectorWarmUpTime) {
+    CameraReadyEvent event = CameraReadyEvent.obtain(view.getId(), faceDetectorWarmUpTime);
     ReactContext reactContext = (ReactContext) view.getContext();
     reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher().dispatchEvent(event);
   }
@@ -189,7 +197,9 @@ public class RNCameraViewHelper {
   public static void emitFacesDetectedEvent(
       ViewGroup view,
       SparseArray<Face> faces,
-      ImageDimensions dimensions
+      ImageDimensions dimensions,
+      int analysisScale,
+      int[] compactLandmarks
       ) {
     float density = view.getResources().getDisplayMetrics().density;
 
@@ -201,7 +211,42 @@ public class RNCameraViewHelper {
         faces,
         dimensions,
         scaleX,
-        scaleY
+        scaleY,
+        analysisScale,
+        compactLandmarks
+    );
+
+    ReactContext reactContext = (ReactContext) view.getContext();
+    reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher().dispatchEvent(event);
+  }
+
+  /**
+   * Sends the faces added, moved or removed since the tracker's last update, if any.
+   */
+  public static void emitFaceDeltasEvent(
+      ViewGroup view,
+      SparseArray<Face> faces,
+      ImageDimensions dimensions,
+      int analysisScale,
+      FaceDeltaTracker tracker
+      ) {
+    float density = view.getResources().getDisplayMetrics().density;
+
+    double scaleX = (double) view.getWidth() / (dimensions.getWidth() * density);
+    double scaleY = (double) view.getHeight() / (dimensions.getHeight() * density);
+
+    FaceDeltaTracker.Delta delta = tracker.update(faces, scaleX * analysisScale, scaleY * analysisScale);
+    if (delta == null) {
+      return;
+    }
+
+    FaceDeltasEvent event = FaceDeltasEvent.obtain(
+        view.getId(),
+        delta,
+        dimensions,
+        scaleX,
+        scaleY,
+        analysisScale
     );
 
     ReactContext reactContext = (ReactContext) view.getContext();
@@ -222,6 +267,15 @@ public class RNCameraViewHelper {
     reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher().dispatchEvent(event);
   }
 
+  /**
+   * @param newBarCodes the codes passing barCodeDebounce, flagged as new, or null without debouncing
+   */
+  public static void emitBarCodesReadEvent(ViewGroup view, List<Result> barCodes, Set<Result> newBarCodes) {
+    BarCodesReadEvent event = BarCodesReadEvent.obtain(view.getId(), barCodes, newBarCodes);
+    ReactContext reactContext = (ReactContext) view.getContext();
+    reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher().dispatchEvent(event);
+  }
+
   // Utilities
 
   public static int getCorrectCameraRotation(int rotation, int facing) {
@@ -0,0 +1,77 @@
+package org.reactnative.camera.events;
+
+import android.support.v4.util.Pools;
+
+import org.reactnative.camera.CameraViewManager;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.google.zxing.Result;
+
+import java.util.List;
+import java.util.Set;
+
+public class BarCodesReadEvent extends Event<BarCodesReadEvent> {
+  private static final Pools.SynchronizedPool<BarCodesReadEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
+  private List<Result> mBarCodes;
+  // Codes passing barCodeDebounce, null when it is disabled
+  private Set<Result> mNewBarCodes;
+
+  private BarCodesReadEvent() {}
+
+  public static BarCodesReadEvent obtain(int viewTag, List<Result> barCodes, Set<Result> newBarCodes) {
+    BarCodesReadEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new BarCodesReadEvent();
+    }
+    event.init(viewTag, barCodes, newBarCodes);
+    return event;
+  }
+
+  private void init(int viewTag, List<Result> barCodes, Set<Result> newBarCodes) {
+    super.init(viewTag);
+    mBarCodes = barCodes;
+    mNewBarCodes = newBarCodes;
+  }
+
+  /**
+   * Each event holds every code of a frame, so a newer event supersedes a pending one.
+   */
+  @Override
+  public short getCoalescingKey() {
+    return 0;
+  }
+
+  @Override
+  public String getEventName() {
+    return CameraViewManager.Events.EVENT_ON_BAR_CODES_READ.toString();
+  }
+
+  @Override
+  public void dispatch(RCTEventEmitter rctEventEmitter) {
+    rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
+  }
+
+  private WritableMap serializeEventData() {
+    WritableArray barCodes = Arguments.createArray();
+    for (Result barCode : mBarCodes) {
+      WritableMap serializedBarCode = Arguments.createMap();
+      serializedBarCode.putString("data", barCode.getText());
+      serializedBarCode.putString("type", barCode.getBarcodeFormat().toString());
+      if (mNewBarCodes != null) {
+        serializedBarCode.putBoolean("isNew", mNewBarCodes.contains(barCode));
+      }
+      barCodes.pushMap(serializedBarCode);
+    }
+
+    WritableMap event = Arguments.createMap();
+    event.putString("type", "barcodes");
+    event.putArray("barCodes", barCodes);
+    event.putInt("target", getViewTag());
+    return event;
+  }
+}
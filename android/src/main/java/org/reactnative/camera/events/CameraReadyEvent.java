@@ -12,17 +12,24 @@ import java.util.Date;
 
 public class CameraReadyEvent extends Event<CameraReadyEvent> {
   private static final Pools.SynchronizedPool<CameraReadyEvent> EVENTS_POOL = new Pools.SynchronizedPool<>(3);
+  private double mFaceDetectorWarmUpTime;
+
   private CameraReadyEvent() {}
 
-  public static CameraReadyEvent obtain(int viewTag) {
+  public static CameraReadyEvent obtain(int viewTag, double faceDetectorWarmUpTime) {
     CameraReadyEvent event = EVENTS_POOL.acquire();
     if (event == null) {
       event = new CameraReadyEvent();
     }
-    event.init(viewTag);
+    event.init(viewTag, faceDetectorWarmUpTime);
     return event;
   }
 
+  private void init(int viewTag, double faceDetectorWarmUpTime) {
+    super.init(viewTag);
+    mFaceDetectorWarmUpTime = faceDetectorWarmUpTime;
+  }
+
   @Override
   public short getCoalescingKey() {
     return 0;
@@ -39,6 +46,12 @@ public class CameraReadyEvent extends Event<CameraReadyEvent> {
   }
 
   private WritableMap serializeEventData() {
-    return Arguments.createMap();
+    WritableMap event = Arguments.createMap();
+    if (mFaceDetectorWarmUpTime >= 0) {
+      event.putDouble("faceDetectorWarmUpTime", mFaceDetectorWarmUpTime);
+    } else {
+      event.putNull("faceDetectorWarmUpTime");
+    }
+    return event;
   }
 }
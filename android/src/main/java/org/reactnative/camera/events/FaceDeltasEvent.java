@@ -0,0 +1,184 @@
+package org.reactnative.camera.events;
+
+import android.support.v4.util.Pools;
+
+import org.reactnative.camera.CameraViewManager;
+import org.reactnative.camera.utils.FaceDeltaTracker;
+import org.reactnative.camera.utils.ImageDimensions;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.google.android.gms.vision.face.Face;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Faces added, updated and removed since the last event, see FaceDeltaTracker.
+ *
+ * When JS lags, the event dispatcher merges a waiting event into the newer one, so that no
+ * change is lost: a face added then removed in between is not sent at all, and only the latest
+ * state of a face updated several times is sent.
+ */
+public class FaceDeltasEvent extends Event<FaceDeltasEvent> {
+  private static final Pools.SynchronizedPool<FaceDeltasEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
+  // By faceID, in detection order
+  private final Map<Integer, SerializableFace> mAdded = new LinkedHashMap<>();
+  private final Map<Integer, SerializableFace> mUpdated = new LinkedHashMap<>();
+  private final Set<Integer> mRemoved = new LinkedHashSet<>();
+
+  private FaceDeltasEvent() {}
+
+  public static FaceDeltasEvent obtain(
+      int viewTag,
+      FaceDeltaTracker.Delta delta,
+      ImageDimensions dimensions,
+      double scaleX,
+      double scaleY,
+      int analysisScale
+  ) {
+    FaceDeltasEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new FaceDeltasEvent();
+    }
+    event.init(viewTag, delta, dimensions, scaleX, scaleY, analysisScale);
+    return event;
+  }
+
+  private void init(
+      int viewTag,
+      FaceDeltaTracker.Delta delta,
+      ImageDimensions dimensions,
+      double scaleX,
+      double scaleY,
+      int analysisScale
+  ) {
+    super.init(viewTag);
+    for (Face face : delta.added) {
+      mAdded.put(face.getId(), new SerializableFace(face, dimensions, scaleX, scaleY, analysisScale));
+    }
+    for (Face face : delta.updated) {
+      mUpdated.put(face.getId(), new SerializableFace(face, dimensions, scaleX, scaleY, analysisScale));
+    }
+    mRemoved.addAll(delta.removed);
+  }
+
+  @Override
+  public short getCoalescingKey() {
+    return 0;
+  }
+
+  /**
+   * Merges the older event's changes into this one.
+   */
+  @Override
+  public FaceDeltasEvent coalesce(FaceDeltasEvent otherEvent) {
+    if (otherEvent.getTimestampMs() > getTimestampMs()) {
+      return otherEvent.coalesce(this);
+    }
+
+    Map<Integer, SerializableFace> added = new LinkedHashMap<>(otherEvent.mAdded);
+    Map<Integer, SerializableFace> updated = new LinkedHashMap<>(otherEvent.mUpdated);
+    Set<Integer> removed = new LinkedHashSet<>(otherEvent.mRemoved);
+
+    for (Map.Entry<Integer, SerializableFace> entry : mAdded.entrySet()) {
+      // A face lost then found again is still known to JS
+      if (removed.remove(entry.getKey())) {
+        updated.put(entry.getKey(), entry.getValue());
+      } else {
+        added.put(entry.getKey(), entry.getValue());
+      }
+    }
+    for (Map.Entry<Integer, SerializableFace> entry : mUpdated.entrySet()) {
+      if (added.containsKey(entry.getKey())) {
+        added.put(entry.getKey(), entry.getValue());
+      } else {
+        updated.put(entry.getKey(), entry.getValue());
+      }
+    }
+    for (Integer faceId : mRemoved) {
+      updated.remove(faceId);
+      if (added.remove(faceId) == null) {
+        removed.add(faceId);
+      }
+    }
+
+    mAdded.clear();
+    mAdded.putAll(added);
+    mUpdated.clear();
+    mUpdated.putAll(updated);
+    mRemoved.clear();
+    mRemoved.addAll(removed);
+    return this;
+  }
+
+  @Override
+  public String getEventName() {
+    return CameraViewManager.Events.EVENT_ON_FACES_CHANGED.toString();
+  }
+
+  @Override
+  public void dispatch(RCTEventEmitter rctEventEmitter) {
+    rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
+  }
+
+  @Override
+  public void onDispose() {
+    mAdded.clear();
+    mUpdated.clear();
+    mRemoved.clear();
+    EVENTS_POOL.release(this);
+  }
+
+  private WritableMap serializeEventData() {
+    WritableArray added = Arguments.createArray();
+    for (SerializableFace face : mAdded.values()) {
+      added.pushMap(face.serialize());
+    }
+    WritableArray updated = Arguments.createArray();
+    for (SerializableFace face : mUpdated.values()) {
+      updated.pushMap(face.serialize());
+    }
+    WritableArray removed = Arguments.createArray();
+    for (Integer faceId : mRemoved) {
+      removed.pushInt(faceId);
+    }
+
+    WritableMap event = Arguments.createMap();
+    event.putString("type", "faceDeltas");
+    event.putArray("added", added);
+    event.putArray("updated", updated);
+    event.putArray("removed", removed);
+    event.putInt("target", getViewTag());
+    return event;
+  }
+
+  /**
+   * A face with the view geometry of the frame it was detected in, serialized on dispatch only.
+   */
+  private static class SerializableFace {
+    final Face face;
+    final ImageDimensions dimensions;
+    final double scaleX;
+    final double scaleY;
+    final int analysisScale;
+
+    SerializableFace(Face face, ImageDimensions dimensions, double scaleX, double scaleY, int analysisScale) {
+      this.face = face;
+      this.dimensions = dimensions;
+      this.scaleX = scaleX;
+      this.scaleY = scaleY;
+      this.analysisScale = analysisScale;
+    }
+
+    WritableMap serialize() {
+      return FacesDetectedEvent.serializeFace(face, dimensions, scaleX, scaleY, analysisScale);
+    }
+  }
+}
@@ -22,6 +22,10 @@ public class FacesDetectedEvent extends Event<FacesDetectedEvent> {
 
   private double mScaleX;
   private double mScaleY;
+  // Frame pixels per pixel of the downsampled frame the faces were detected in
+  private int mAnalysisScale;
+  // Landmark types sent in the compact format, null to send face maps
+  private int[] mCompactLandmarks;
   private SparseArray<Face> mFaces;
   private ImageDimensions mImageDimensions;
 
@@ -32,13 +36,15 @@ public class FacesDetectedEvent extends Event<FacesDetectedEvent> {
       SparseArray<Face> faces,
       ImageDimensions dimensions,
       double scaleX,
-      double scaleY
+      double scaleY,
+      int analysisScale,
+      int[] compactLandmarks
   ) {
     FacesDetectedEvent event = EVENTS_POOL.acquire();
     if (event == null) {
       event = new FacesDetectedEvent();
     }
-    event.init(viewTag, faces, dimensions, scaleX, scaleY);
+    event.init(viewTag, faces, dimensions, scaleX, scaleY, analysisScale, compactLandmarks);
     return event;
   }
 
@@ -47,13 +53,17 @@ public class FacesDetectedEvent extends Event<FacesDetectedEvent> {
       SparseArray<Face> faces,
       ImageDimensions dimensions,
       double scaleX,
-      double scaleY
+      double scaleY,
+      int analysisScale,
+      int[] compactLandmarks
   ) {
     super.init(viewTag);
     mFaces = faces;
     mImageDimensions = dimensions;
     mScaleX = scaleX;
     mScaleY = scaleY;
+    mAnalysisScale = analysisScale;
+    mCompactLandmarks = compactLandmarks;
   }
 
   /**
@@ -80,18 +90,29 @@ public class FacesDetectedEvent extends Event<FacesDetectedEvent> {
     rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
   }
 
+  /**
+   * @return the face in view coordinates, mirrored for the front camera.
+   */
+  static WritableMap serializeFace(Face face, ImageDimensions dimensions, double scaleX, double scaleY, int analysisScale) {
+    // Boxes and landmarks are moved back to frame coordinates along with the scaling to the view
+    WritableMap serializedFace = FaceDetectorUtils.serializeFace(face, scaleX * analysisScale, scaleY * analysisScale);
+    if (dimensions.getFacing() == CameraView.FACING_FRONT) {
+      serializedFace = FaceDetectorUtils.rotateFaceX(serializedFace, dimensions.getWidth(), scaleX);
+    } else {
+      serializedFace = FaceDetectorUtils.changeAnglesDirection(serializedFace);
+    }
+    return serializedFace;
+  }
+
   private WritableMap serializeEventData() {
+    if (mCompactLandmarks != null) {
+      return serializeCompactEventData();
+    }
+
     WritableArray facesList = Arguments.createArray();
 
     for(int i = 0; i < mFaces.size(); i++) {
-      Face face = mFaces.valueAt(i);
-      WritableMap serializedFace = FaceDetectorUtils.serializeFace(face, mScaleX, mScaleY);
-      if (mImageDimensions.getFacing() == CameraView.FACING_FRONT) {
-        serializedFace = FaceDetectorUtils.rotateFaceX(serializedFace, mImageDimensions.getWidth(), mScaleX);
-      } else {
-        serializedFace = FaceDetectorUtils.changeAnglesDirection(serializedFace);
-      }
-      facesList.pushMap(serializedFace);
+      facesList.pushMap(serializeFace(mFaces.valueAt(i), mImageDimensions, mScaleX, mScaleY, mAnalysisScale));
     }
 
     WritableMap event = Arguments.createMap();
@@ -100,4 +121,29 @@ public class FacesDetectedEvent extends Event<FacesDetectedEvent> {
     event.putInt("target", getViewTag());
     return event;
   }
+
+  /**
+   * All faces in one flat array, FaceDetectorUtils.compactStride() values per face.
+   */
+  private WritableMap serializeCompactEventData() {
+    boolean mirrored = mImageDimensions.getFacing() == CameraView.FACING_FRONT;
+    WritableArray faceData = Arguments.createArray();
+    for (int i = 0; i < mFaces.size(); i++) {
+      FaceDetectorUtils.appendCompactFace(faceData, mFaces.valueAt(i), mCompactLandmarks, mScaleX, mScaleY,
+          mAnalysisScale, mirrored, mImageDimensions.getWidth());
+    }
+
+    WritableArray landmarks = Arguments.createArray();
+    for (int landmarkType : mCompactLandmarks) {
+      landmarks.pushString(FaceDetectorUtils.landmarkName(landmarkType));
+    }
+
+    WritableMap event = Arguments.createMap();
+    event.putString("type", "face");
+    event.putInt("stride", FaceDetectorUtils.compactStride(mCompactLandmarks));
+    event.putArray("landmarks", landmarks);
+    event.putArray("faceData", faceData);
+    event.putInt("target", getViewTag());
+    return event;
+  }
 }
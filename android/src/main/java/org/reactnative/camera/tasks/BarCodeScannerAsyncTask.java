@@ -1,74 +1,98 @@
 package org.reactnative.camera.tasks;
 
-import com.google.zxing.BinaryBitmap;
-import com.google.zxing.MultiFormatReader;
-import com.google.zxing.NotFoundException;
-import com.google.zxing.PlanarYUVLuminanceSource;
+import android.graphics.Rect;
+
 import com.google.zxing.Result;
-import com.google.zxing.common.HybridBinarizer;
 
-public class BarCodeScannerAsyncTask extends android.os.AsyncTask<Void, Void, Result> {
+import org.reactnative.camera.utils.BarCodeDecoder;
+import org.reactnative.camera.utils.BarCodeDecoderSelector;
+import org.reactnative.camera.utils.BarCodeScanningCore;
+import org.reactnative.camera.utils.BarCodeTracker;
+import org.reactnative.camera.utils.PipelineStats;
+
+public class BarCodeScannerAsyncTask extends android.os.AsyncTask<Void, Void, Result[]> {
   private byte[] mImageData;
   private int mWidth;
   private int mHeight;
+  private Rect mFrameRegion;
+  private boolean mMultiple;
+  private BarCodeTracker mTracker;
+  private long mFrameTimestamp;
+  private long mResultTimestamp;
   private BarCodeScannerAsyncTaskDelegate mDelegate;
-  private final MultiFormatReader mMultiFormatReader;
+  private final BarCodeDecoderSelector mDecoders;
+  private final PipelineStats mStats;
 
   //  note(sjchmiela): From my short research it's ok to ignore rotation of the image.
   public BarCodeScannerAsyncTask(
       BarCodeScannerAsyncTaskDelegate delegate,
-      MultiFormatReader multiFormatReader,
+      BarCodeDecoderSelector decoders,
       byte[] imageData,
       int width,
-      int height
+      int height,
+      Rect frameRegion,
+      boolean multiple,
+      BarCodeTracker tracker,
+      long frameTimestamp,
+      PipelineStats stats
   ) {
     mImageData = imageData;
     mWidth = width;
     mHeight = height;
+    mFrameRegion = frameRegion != null ? frameRegion : new Rect(0, 0, width, height);
+    mMultiple = multiple;
+    mTracker = tracker;
+    mFrameTimestamp = frameTimestamp;
     mDelegate = delegate;
-    mMultiFormatReader = multiFormatReader;
+    mDecoders = decoders;
+    mStats = stats;
   }
 
   @Override
-  protected Result doInBackground(Void... ignored) {
+  protected Result[] doInBackground(Void... ignored) {
     if (isCancelled() || mDelegate == null) {
       return null;
     }
 
-    Result result = null;
+    TaskExecutor.applyThreadPriority();
+    long start = System.nanoTime();
+    Result[] result = null;
 
+    BarCodeDecoder decoder = mDecoders.next();
     try {
-      BinaryBitmap bitmap = generateBitmapFromImageData(mImageData, mWidth, mHeight);
-      result = mMultiFormatReader.decodeWithState(bitmap);
-    } catch (NotFoundException e) {
-      // No barcode found, result is already null.
+      result = decoder.decode(mImageData, mWidth, mHeight, mFrameRegion, mMultiple);
     } catch (Throwable t) {
       t.printStackTrace();
     }
 
+    if (mTracker != null) {
+      mTracker.update(result, mWidth, mHeight);
+    }
+    mResultTimestamp = System.nanoTime();
+    mDecoders.record(decoder, mResultTimestamp - start, result != null);
+    BarCodeScanningCore.recordScan(BarCodeScanningCore.SOURCE_RN_CAMERA, mResultTimestamp - start, result != null);
+    if (mStats != null) {
+      mStats.recordStage(PipelineStats.STAGE_FRAME_DELIVERY, start - mFrameTimestamp);
+      mStats.recordStage(PipelineStats.STAGE_BAR_CODE_DECODE, mResultTimestamp - start);
+    }
     return result;
   }
 
   @Override
-  protected void onPostExecute(Result result) {
+  protected void onPostExecute(Result[] result) {
     super.onPostExecute(result);
+    if (mMultiple) {
+      // Frames without codes are reported too, so that a code leaving and coming back is read again
+      mDelegate.onBarCodesRead(result != null ? result : new Result[0]);
+    }
     if (result != null) {
-      mDelegate.onBarCodeRead(result);
+      if (!mMultiple) {
+        mDelegate.onBarCodeRead(result[0]);
+      }
+      if (mStats != null) {
+        mStats.recordStage(PipelineStats.STAGE_EVENT_DISPATCH, System.nanoTime() - mResultTimestamp);
+      }
     }
     mDelegate.onBarCodeScanningTaskCompleted();
   }
-
-  private BinaryBitmap generateBitmapFromImageData(byte[] imageData, int width, int height) {
-    PlanarYUVLuminanceSource source = new PlanarYUVLuminanceSource(
-        imageData, // byte[] yuvData
-        width, // int dataWidth
-        height, // int dataHeight
-        0, // int left
-        0, // int top
-        width, // int width
-        height, // int height
-        false // boolean reverseHorizontal
-    );
-    return new BinaryBitmap(new HybridBinarizer(source));
-  }
 }
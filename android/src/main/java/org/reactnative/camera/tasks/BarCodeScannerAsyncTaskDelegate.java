@@ -4,5 +4,6 @@ import com.google.zxing.Result;
 
 public interface BarCodeScannerAsyncTaskDelegate {
   void onBarCodeRead(Result barCode);
+  void onBarCodesRead(Result[] barCodes);
   void onBarCodeScanningTaskCompleted();
 }
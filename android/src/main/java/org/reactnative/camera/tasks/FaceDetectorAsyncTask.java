@@ -2,18 +2,28 @@ package org.reactnative.camera.tasks;
 
 import android.util.SparseArray;
 
+import org.reactnative.camera.utils.ByteArrayPool;
+import org.reactnative.camera.utils.PipelineStats;
 import org.reactnative.facedetector.RNFaceDetector;
 import org.reactnative.facedetector.RNFrame;
 import org.reactnative.facedetector.RNFrameFactory;
 import com.google.android.gms.vision.face.Face;
 
 public class FaceDetectorAsyncTask extends android.os.AsyncTask<Void, Void, SparseArray<Face>> {
+  // Downsampled frames, shared by every camera
+  private static final ByteArrayPool ANALYSIS_FRAME_POOL = new ByteArrayPool(4, 8 * 1024 * 1024);
+
   private byte[] mImageData;
   private int mWidth;
   private int mHeight;
   private int mRotation;
+  private int mResolution;
+  private int mAnalysisScale = 1;
+  private long mFrameTimestamp;
+  private long mResultTimestamp;
   private RNFaceDetector mFaceDetector;
   private FaceDetectorAsyncTaskDelegate mDelegate;
+  private PipelineStats mStats;
 
   public FaceDetectorAsyncTask(
       FaceDetectorAsyncTaskDelegate delegate,
@@ -21,14 +31,20 @@ public class FaceDetectorAsyncTask extends android.os.AsyncTask<Void, Void, Spar
       byte[] imageData,
       int width,
       int height,
-      int rotation
+      int rotation,
+      int resolution,
+      long frameTimestamp,
+      PipelineStats stats
   ) {
     mImageData = imageData;
     mWidth = width;
     mHeight = height;
     mRotation = rotation;
+    mResolution = resolution;
+    mFrameTimestamp = frameTimestamp;
     mDelegate = delegate;
     mFaceDetector = faceDetector;
+    mStats = stats;
   }
 
   @Override
@@ -37,8 +53,30 @@ public class FaceDetectorAsyncTask extends android.os.AsyncTask<Void, Void, Spar
       return null;
     }
 
-    RNFrame frame = RNFrameFactory.buildFrame(mImageData, mWidth, mHeight, mRotation);
-    return mFaceDetector.detect(frame);
+    TaskExecutor.applyThreadPriority();
+    long start = System.nanoTime();
+    SparseArray<Face> faces;
+    int factor = RNFrameFactory.downsamplingFactor(mWidth, mHeight, mResolution);
+    if (factor > 1) {
+      byte[] buffer = ANALYSIS_FRAME_POOL.acquire(RNFrameFactory.downsampledBufferSize(mWidth, mHeight, factor));
+      try {
+        RNFrame frame = RNFrameFactory.buildDownsampledFrame(mImageData, mWidth, mHeight, mRotation, factor, buffer);
+        faces = mFaceDetector.detect(frame);
+      } finally {
+        ANALYSIS_FRAME_POOL.release(buffer);
+      }
+      mAnalysisScale = factor;
+    } else {
+      RNFrame frame = RNFrameFactory.buildFrame(mImageData, mWidth, mHeight, mRotation);
+      faces = mFaceDetector.detect(frame);
+    }
+
+    mResultTimestamp = System.nanoTime();
+    if (mStats != null) {
+      mStats.recordStage(PipelineStats.STAGE_FRAME_DELIVERY, start - mFrameTimestamp);
+      mStats.recordStage(PipelineStats.STAGE_FACE_DETECTION, mResultTimestamp - start);
+    }
+    return faces;
   }
 
   @Override
@@ -48,7 +86,10 @@ public class FaceDetectorAsyncTask extends android.os.AsyncTask<Void, Void, Spar
     if (faces == null) {
       mDelegate.onFaceDetectionError(mFaceDetector);
     } else {
-      mDelegate.onFacesDetected(faces, mWidth, mHeight, mRotation);
+      mDelegate.onFacesDetected(faces, mWidth, mHeight, mRotation, mAnalysisScale);
+      if (mStats != null) {
+        mStats.recordStage(PipelineStats.STAGE_EVENT_DISPATCH, System.nanoTime() - mResultTimestamp);
+      }
       mDelegate.onFaceDetectingTaskCompleted();
     }
   }
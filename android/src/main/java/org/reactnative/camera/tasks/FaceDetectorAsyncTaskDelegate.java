@@ -6,7 +6,10 @@ import org.reactnative.facedetector.RNFaceDetector;
 import com.google.android.gms.vision.face.Face;
 
 public interface FaceDetectorAsyncTaskDelegate {
-  void onFacesDetected(SparseArray<Face> face, int sourceWidth, int sourceHeight, int sourceRotation);
+  /**
+   * @param analysisScale source pixels per pixel of the frame the faces were detected in
+   */
+  void onFacesDetected(SparseArray<Face> face, int sourceWidth, int sourceHeight, int sourceRotation, int analysisScale);
   void onFaceDetectionError(RNFaceDetector faceDetector);
   void onFaceDetectingTaskCompleted();
 }
@@ -0,0 +1,39 @@
+package org.reactnative.camera.tasks;
+
+import org.reactnative.facedetector.RNFaceDetector;
+
+/**
+ * Builds the face detector ahead of the first frame. Run on the face detection executor, it is
+ * queued before the first FaceDetectorAsyncTask, which then finds a ready detector.
+ */
+public class FaceDetectorWarmUpAsyncTask extends android.os.AsyncTask<Void, Void, Boolean> {
+  private RNFaceDetector mFaceDetector;
+  private FaceDetectorWarmUpAsyncTaskDelegate mDelegate;
+  private long mDuration;
+
+  public FaceDetectorWarmUpAsyncTask(FaceDetectorWarmUpAsyncTaskDelegate delegate, RNFaceDetector faceDetector) {
+    mDelegate = delegate;
+    mFaceDetector = faceDetector;
+  }
+
+  @Override
+  protected Boolean doInBackground(Void... ignored) {
+    if (isCancelled() || mDelegate == null || mFaceDetector == null) {
+      return false;
+    }
+
+    TaskExecutor.applyThreadPriority();
+    long start = System.nanoTime();
+    boolean operational = mFaceDetector.warmUp();
+    mDuration = System.nanoTime() - start;
+    return operational;
+  }
+
+  @Override
+  protected void onPostExecute(Boolean operational) {
+    super.onPostExecute(operational);
+    if (mDelegate != null) {
+      mDelegate.onFaceDetectorWarmedUp(operational, mDuration / 1E6);
+    }
+  }
+}
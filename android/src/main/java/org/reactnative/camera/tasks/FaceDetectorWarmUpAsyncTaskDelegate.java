@@ -0,0 +1,8 @@
+package org.reactnative.camera.tasks;
+
+public interface FaceDetectorWarmUpAsyncTaskDelegate {
+  /**
+   * @param duration milliseconds spent building the detector and loading its native library
+   */
+  void onFaceDetectorWarmedUp(boolean operational, double duration);
+}
@@ -0,0 +1,242 @@
+package org.reactnative.camera.tasks;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.AsyncTask;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+
+import org.reactnative.camera.utils.BarCodeScanningCore;
+import org.reactnative.camera.utils.ByteArrayPool;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Decodes the bar codes of one image file. A batch runs one task per file on
+ * TaskExecutors.FILE_BAR_CODE, so files are decoded in parallel, each with a reader of BarCodeScanningCore's pool.
+ *
+ * Large images are subsampled by BitmapFactory while decoding, and their luma is written into a
+ * buffer borrowed from a pool shared by the batch instead of into a new array.
+ */
+public class FileBarCodeDecodingAsyncTask extends AsyncTask<Void, Void, Result[]> {
+  private final int mIndex;
+  private final String mUri;
+  private final Context mContext;
+  private final Set<BarcodeFormat> mFormats;
+  private final boolean mTryHarder;
+  private final boolean mMultiple;
+  private final int mMaxDimension;
+  private final ByteArrayPool mLumaPool;
+  private final FileBarCodeDecodingAsyncTaskDelegate mDelegate;
+  private int mWidth = 0;
+  private int mHeight = 0;
+  private String mError;
+
+  public FileBarCodeDecodingAsyncTask(
+      FileBarCodeDecodingAsyncTaskDelegate delegate,
+      Context context,
+      int index,
+      String uri,
+      Set<BarcodeFormat> formats,
+      boolean tryHarder,
+      boolean multiple,
+      int maxDimension,
+      ByteArrayPool lumaPool
+  ) {
+    mDelegate = delegate;
+    mContext = context;
+    mIndex = index;
+    mUri = uri;
+    mFormats = formats;
+    mTryHarder = tryHarder;
+    mMultiple = multiple;
+    mMaxDimension = maxDimension;
+    mLumaPool = lumaPool;
+  }
+
+  @Override
+  protected Result[] doInBackground(Void... ignored) {
+    if (isCancelled()) {
+      return null;
+    }
+
+    TaskExecutor.applyThreadPriority();
+    String path = validatePath();
+    if (path == null) {
+      return null;
+    }
+
+    BitmapFactory.Options bounds = new BitmapFactory.Options();
+    bounds.inJustDecodeBounds = true;
+    BitmapFactory.decodeFile(path, bounds);
+    if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+      mError = "Could not decode the image at `" + mUri + "`.";
+      return null;
+    }
+    mWidth = bounds.outWidth;
+    mHeight = bounds.outHeight;
+
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inSampleSize = sampleSizeFor(mWidth, mHeight, mMaxDimension);
+    options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+    Bitmap bitmap;
+    try {
+      bitmap = BitmapFactory.decodeFile(path, options);
+    } catch (Throwable t) {
+      // e.g. OutOfMemoryError for a very large image decoded with maxDimension 0
+      mError = "Could not decode the image at `" + mUri + "`: " + t.getMessage();
+      return null;
+    }
+    if (bitmap == null) {
+      mError = "Could not decode the image at `" + mUri + "`.";
+      return null;
+    }
+
+    int width = bitmap.getWidth();
+    int height = bitmap.getHeight();
+    byte[] luma = null;
+    long start = System.nanoTime();
+    Result[] result = null;
+    try {
+      luma = mLumaPool.acquire(width * height);
+      writeLuma(bitmap, luma);
+      PlanarYUVLuminanceSource source = new PlanarYUVLuminanceSource(luma, width, height, 0, 0, width, height, false);
+      result = toImageCoordinates(decode(new BinaryBitmap(new HybridBinarizer(source))), options.inSampleSize);
+      return result;
+    } catch (NotFoundException e) {
+      return new Result[0];
+    } catch (Throwable t) {
+      mError = "Bar code decoding failed: " + t.getMessage();
+      return null;
+    } finally {
+      BarCodeScanningCore.recordScan(BarCodeScanningCore.SOURCE_FILE, System.nanoTime() - start, result != null);
+      bitmap.recycle();
+      if (luma != null) {
+        mLumaPool.release(luma);
+      }
+    }
+  }
+
+  @Override
+  protected void onPostExecute(Result[] result) {
+    super.onPostExecute(result);
+    if (result == null) {
+      mDelegate.onFileBarCodesDecodingFailed(mIndex, mUri, mError != null ? mError : "Bar code decoding failed.");
+    } else {
+      mDelegate.onFileBarCodesDecoded(mIndex, mUri, result, mWidth, mHeight);
+    }
+  }
+
+  /**
+   * Same checks as detectFaces: the image has to be an existing file of the app's directories.
+   *
+   * @return the file path, or null with mError set.
+   */
+  private String validatePath() {
+    if (mUri == null) {
+      mError = "You have to provide an URI of an image.";
+      return null;
+    }
+
+    String path = Uri.parse(mUri).getPath();
+    if (path == null) {
+      mError = "Invalid URI provided: `" + mUri + "`.";
+      return null;
+    }
+
+    boolean fileIsInSafeDirectories =
+        path.startsWith(mContext.getCacheDir().getPath()) || path.startsWith(mContext.getFilesDir().getPath());
+    if (!fileIsInSafeDirectories) {
+      mError = "The image has to be in the local app's directories.";
+      return null;
+    }
+
+    if (!new File(path).exists()) {
+      mError = "The file does not exist. Given path: `" + path + "`.";
+      return null;
+    }
+    return path;
+  }
+
+  private Result[] decode(BinaryBitmap bitmap) throws NotFoundException {
+    MultiFormatReader reader = BarCodeScanningCore.acquireReader(mFormats, mTryHarder);
+    try {
+      if (mMultiple) {
+        return new GenericMultipleBarcodeReader(BarCodeScanningCore.keepingHints(reader)).decodeMultiple(bitmap);
+      }
+      return new Result[] { reader.decodeWithState(bitmap) };
+    } finally {
+      BarCodeScanningCore.releaseReader(reader);
+    }
+  }
+
+  /**
+   * @return the smallest power of two bringing the longest side down to maxDimension,
+   * or 1 when maxDimension is not positive.
+   */
+  private static int sampleSizeFor(int width, int height, int maxDimension) {
+    int sampleSize = 1;
+    if (maxDimension <= 0) {
+      return sampleSize;
+    }
+    while (Math.max(width, height) / sampleSize > maxDimension) {
+      sampleSize *= 2;
+    }
+    return sampleSize;
+  }
+
+  /**
+   * Writes the luma of the bitmap into the buffer, one row at a time, with ZXing's
+   * (r + 2g + b) / 4 approximation.
+   */
+  private static void writeLuma(Bitmap bitmap, byte[] luma) {
+    int width = bitmap.getWidth();
+    int height = bitmap.getHeight();
+    int[] row = new int[width];
+    for (int y = 0; y < height; y++) {
+      bitmap.getPixels(row, 0, width, 0, y, width, 1);
+      int offset = y * width;
+      for (int x = 0; x < width; x++) {
+        int pixel = row[x];
+        int r = (pixel >> 16) & 0xff;
+        int g = (pixel >> 8) & 0xff;
+        int b = pixel & 0xff;
+        luma[offset + x] = (byte) ((r + 2 * g + b) >> 2);
+      }
+    }
+  }
+
+  /**
+   * Result points are found in the subsampled image, scales them back to the file's pixels.
+   */
+  private static Result[] toImageCoordinates(Result[] results, int scale) {
+    if (scale == 1) {
+      return results;
+    }
+    for (int i = 0; i < results.length; i++) {
+      Result result = results[i];
+      ResultPoint[] points = result.getResultPoints();
+      if (points == null) {
+        continue;
+      }
+      ResultPoint[] imagePoints = new ResultPoint[points.length];
+      for (int j = 0; j < points.length; j++) {
+        imagePoints[j] = points[j] == null ? null : new ResultPoint(points[j].getX() * scale, points[j].getY() * scale);
+      }
+      results[i] = new Result(result.getText(), result.getRawBytes(), imagePoints, result.getBarcodeFormat(), result.getTimestamp());
+      results[i].putAllMetadata(result.getResultMetadata());
+    }
+    return results;
+  }
+}
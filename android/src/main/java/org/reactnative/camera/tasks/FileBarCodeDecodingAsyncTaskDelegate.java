@@ -0,0 +1,8 @@
+package org.reactnative.camera.tasks;
+
+import com.google.zxing.Result;
+
+public interface FileBarCodeDecodingAsyncTaskDelegate {
+  void onFileBarCodesDecoded(int index, String uri, Result[] barCodes, int width, int height);
+  void onFileBarCodesDecodingFailed(int index, String uri, String message);
+}
@@ -8,9 +8,10 @@ import android.net.Uri;
 import android.os.AsyncTask;
 import android.support.media.ExifInterface;
 import android.util.Base64;
-import android.util.Log;
 
 import org.reactnative.camera.RNCameraViewHelper;
+import org.reactnative.camera.utils.PipelineStats;
+import org.reactnative.camera.utils.Tracer;
 import org.reactnative.camera.utils.RNFileUtils;
 
 import com.facebook.react.bridge.Arguments;
@@ -31,6 +32,8 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Writable
     private ReadableMap mOptions;
     private File mCacheDirectory;
     private Bitmap mBitmap;
+    private PipelineStats mStats;
+    private ResolveTakenPictureAsyncTaskDelegate mDelegate;
 
     public ResolveTakenPictureAsyncTask(byte[] imageData, Promise promise, ReadableMap options) {
         mPromise = promise;
@@ -45,6 +48,11 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Writable
         mCacheDirectory = cacheDirectory;
     }
 
+    public ResolveTakenPictureAsyncTask(byte[] imageData, Promise promise, ReadableMap options, File cacheDirectory, PipelineStats stats) {
+        this(imageData, promise, options, cacheDirectory);
+        mStats = stats;
+    }
+
     public ResolveTakenPictureAsyncTask(Bitmap bitmap, Promise promise, ReadableMap options, File cacheDirectory) {
         mPromise = promise;
         mOptions = options;
@@ -52,63 +60,104 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Writable
         mCacheDirectory = cacheDirectory;
     }
 
+    public ResolveTakenPictureAsyncTask(Bitmap bitmap, Promise promise, ReadableMap options, File cacheDirectory, PipelineStats stats) {
+        this(bitmap, promise, options, cacheDirectory);
+        mStats = stats;
+    }
+
+    public ResolveTakenPictureAsyncTask(Bitmap bitmap, Promise promise, ReadableMap options, File cacheDirectory, PipelineStats stats, ResolveTakenPictureAsyncTaskDelegate delegate) {
+        this(bitmap, promise, options, cacheDirectory, stats);
+        mDelegate = delegate;
+    }
+
     private int getQuality() {
         return (int) (mOptions.getDouble("quality") * 100);
     }
 
     @Override
     protected WritableMap doInBackground(Void... voids) {
-        Log.d("PROFILE", "***************");
+        try {
+            return resolve();
+        } catch (Throwable t) {
+            // e.g. out of memory while decoding or compressing, the delegate must still be told
+            mPromise.reject(ERROR_TAG, "The picture could not be processed.", t);
+            t.printStackTrace();
+            return null;
+        }
+    }
+
+    private WritableMap resolve() {
+        TaskExecutor.applyThreadPriority();
         long start = System.nanoTime();
+        long traceStart;
         WritableMap response = Arguments.createMap();
         ByteArrayInputStream inputStream = null;
 
         // we need the stream only for photos from a device
         if (mBitmap == null) {
-            mBitmap = BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length);
-            inputStream = new ByteArrayInputStream(mImageData);
+            traceStart = Tracer.begin(Tracer.RESOLVE_DECODE);
+            try {
+                mBitmap = BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length);
+                inputStream = new ByteArrayInputStream(mImageData);
+            } finally {
+                Tracer.end(Tracer.RESOLVE_DECODE, traceStart);
+            }
         }
 
-        long elapsedTime = System.nanoTime() - start;
-        Log.d("PROFILE", "Get RGB: " + elapsedTime / 1E6);
-
         try {
             if (inputStream != null) {
-                ExifInterface exifInterface = new ExifInterface(inputStream);
-                // Get orientation of the image from mImageData via inputStream
-                int orientation = exifInterface.getAttributeInt(ExifInterface.TAG_ORIENTATION,
-                        ExifInterface.ORIENTATION_UNDEFINED);
-                elapsedTime = System.nanoTime() - start;
-                Log.d("PROFILE", "EXIF interface: " + elapsedTime / 1E6);
+                ExifInterface exifInterface;
+                int orientation;
+                traceStart = Tracer.begin(Tracer.RESOLVE_READ_EXIF);
+                try {
+                    exifInterface = new ExifInterface(inputStream);
+                    // Get orientation of the image from mImageData via inputStream
+                    orientation = exifInterface.getAttributeInt(ExifInterface.TAG_ORIENTATION,
+                            ExifInterface.ORIENTATION_UNDEFINED);
+                } finally {
+                    Tracer.end(Tracer.RESOLVE_READ_EXIF, traceStart);
+                }
 
                 // Rotate the bitmap to the proper orientation if needed
                 if (mOptions.hasKey("fixOrientation") && mOptions.getBoolean("fixOrientation") && orientation != ExifInterface.ORIENTATION_UNDEFINED) {
                     if (orientation == 0) {
                         orientation = ExifInterface.ORIENTATION_ROTATE_90;
                     }
-                    mBitmap = rotateBitmap(mBitmap, getImageRotation(orientation));
-                    elapsedTime = System.nanoTime() - start;
-                    Log.d("PROFILE", "Rotate: " + elapsedTime / 1E6);
+                    traceStart = Tracer.begin(Tracer.RESOLVE_ROTATE);
+                    try {
+                        mBitmap = rotateBitmap(mBitmap, getImageRotation(orientation));
+                    } finally {
+                        Tracer.end(Tracer.RESOLVE_ROTATE, traceStart);
+                    }
                 }
 
                 if (mOptions.hasKey("mirrorImage") && mOptions.getBoolean("mirrorImage")) {
-                    mBitmap = flipHorizontally(mBitmap);
-                    elapsedTime = System.nanoTime() - start;
-                    Log.d("PROFILE", "Mirror: " + elapsedTime / 1E6);
+                    traceStart = Tracer.begin(Tracer.RESOLVE_MIRROR);
+                    try {
+                        mBitmap = flipHorizontally(mBitmap);
+                    } finally {
+                        Tracer.end(Tracer.RESOLVE_MIRROR, traceStart);
+                    }
                 }
 
                 if (mOptions.hasKey("width")) {
-                    mBitmap = resizeBitmap(mBitmap, mOptions.getInt("width"));
-                    elapsedTime = System.nanoTime() - start;
-                    Log.d("PROFILE", "Resize: " + elapsedTime / 1E6);
+                    traceStart = Tracer.begin(Tracer.RESOLVE_RESIZE);
+                    try {
+                        mBitmap = resizeBitmap(mBitmap, mOptions.getInt("width"));
+                    } finally {
+                        Tracer.end(Tracer.RESOLVE_RESIZE, traceStart);
+                    }
                 }
 
                 // Write Exif data to the response if requested
                 if (mOptions.hasKey("exif") && mOptions.getBoolean("exif")) {
-                    WritableMap exifData = RNCameraViewHelper.getExifData(exifInterface);
-                    response.putMap("exif", exifData);
-                    elapsedTime = System.nanoTime() - start;
-                    Log.d("PROFILE", "Write EXIF: " + elapsedTime / 1E6);
+                    traceStart = Tracer.begin(Tracer.RESOLVE_WRITE_EXIF);
+                    try {
+                        WritableMap exifData = RNCameraViewHelper.getExifData(exifInterface);
+                        response.putMap("exif", exifData);
+                    } finally {
+                        Tracer.end(Tracer.RESOLVE_WRITE_EXIF, traceStart);
+                    }
                 }
             }
 
@@ -118,25 +167,34 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Writable
 
             // Cache compressed image in imageStream
             ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
-            mBitmap.compress(Bitmap.CompressFormat.JPEG, getQuality(), imageStream);
-            elapsedTime = System.nanoTime() - start;
-            Log.d("PROFILE", "Compress: " + elapsedTime / 1E6);
+            traceStart = Tracer.begin(Tracer.RESOLVE_COMPRESS);
+            try {
+                mBitmap.compress(Bitmap.CompressFormat.JPEG, getQuality(), imageStream);
+            } finally {
+                Tracer.end(Tracer.RESOLVE_COMPRESS, traceStart);
+            }
 
             if (false) { // Don't save file to disk
                 // Write compressed image to file in cache directory
-                String filePath = writeStreamToFile(imageStream);
-                File imageFile = new File(filePath);
-                String fileUri = Uri.fromFile(imageFile).toString();
-                response.putString("uri", fileUri);
-                elapsedTime = System.nanoTime() - start;
-                Log.d("PROFILE", "Write file: " + elapsedTime / 1E6);
+                traceStart = Tracer.begin(Tracer.RESOLVE_WRITE_FILE);
+                try {
+                    String filePath = writeStreamToFile(imageStream);
+                    File imageFile = new File(filePath);
+                    String fileUri = Uri.fromFile(imageFile).toString();
+                    response.putString("uri", fileUri);
+                } finally {
+                    Tracer.end(Tracer.RESOLVE_WRITE_FILE, traceStart);
+                }
             }
 
             // Write base64-encoded image to the response if requested
             if (mOptions.hasKey("base64") && mOptions.getBoolean("base64")) {
-                response.putString("base64", Base64.encodeToString(imageStream.toByteArray(), Base64.DEFAULT));
-                elapsedTime = System.nanoTime() - start;
-                Log.d("PROFILE", "Base64: " + elapsedTime / 1E6);
+                traceStart = Tracer.begin(Tracer.RESOLVE_BASE64);
+                try {
+                    response.putString("base64", Base64.encodeToString(imageStream.toByteArray(), Base64.DEFAULT));
+                } finally {
+                    Tracer.end(Tracer.RESOLVE_BASE64, traceStart);
+                }
             }
 
             // Cleanup
@@ -145,9 +203,9 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Writable
                 inputStream.close();
                 inputStream = null;
             }
-            elapsedTime = System.nanoTime() - start;
-            Log.d("PROFILE", "Close: " + elapsedTime / 1E6);
-
+            if (mStats != null) {
+                mStats.recordStage(PipelineStats.STAGE_CAPTURE_RESOLVE, System.nanoTime() - start);
+            }
 
             return response;
         } catch (Resources.NotFoundException e) {
@@ -245,6 +303,23 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Writable
         if (response != null) {
             mPromise.resolve(response);
         }
+        notifyDelegate();
+    }
+
+    @Override
+    protected void onCancelled(WritableMap response) {
+        super.onCancelled(response);
+        mPromise.reject(ERROR_TAG, "Processing of the picture was cancelled.");
+        notifyDelegate();
+    }
+
+    /**
+     * Called once on every outcome, so that the capture slot held for the picture is released.
+     */
+    private void notifyDelegate() {
+        if (mDelegate != null) {
+            mDelegate.onTakenPictureResolved();
+        }
     }
 
 }
@@ -0,0 +1,5 @@
+package org.reactnative.camera.tasks;
+
+public interface ResolveTakenPictureAsyncTaskDelegate {
+  void onTakenPictureResolved();
+}
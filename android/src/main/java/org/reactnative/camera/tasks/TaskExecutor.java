@@ -0,0 +1,113 @@
+package org.reactnative.camera.tasks;
+
+import android.os.Process;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded thread pool running one class of camera work (bar code analysis, face analysis, capture
+ * encoding...). Each workload gets its own pool so that a slow task of one kind never waits
+ * behind another kind, as it did on AsyncTask's process-wide serial executor.
+ */
+public class TaskExecutor extends ThreadPoolExecutor {
+  private static final int KEEP_ALIVE_SECONDS = 30;
+
+  private final String mName;
+  private volatile int mThreadPriority;
+
+  public TaskExecutor(String name, int threadCount, int threadPriority) {
+    super(
+        Math.max(1, threadCount),
+        Math.max(1, threadCount),
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>()
+    );
+    mName = name;
+    mThreadPriority = threadPriority;
+    setThreadFactory(new TaskThreadFactory());
+    allowCoreThreadTimeOut(true);
+  }
+
+  public String getName() {
+    return mName;
+  }
+
+  public synchronized void setThreadCount(int threadCount) {
+    threadCount = Math.max(1, threadCount);
+    // Core size may never exceed maximum size, so grow the maximum first and shrink it last.
+    if (threadCount > getMaximumPoolSize()) {
+      setMaximumPoolSize(threadCount);
+      setCorePoolSize(threadCount);
+    } else {
+      setCorePoolSize(threadCount);
+      setMaximumPoolSize(threadCount);
+    }
+  }
+
+  public int getThreadCount() {
+    return getMaximumPoolSize();
+  }
+
+  /**
+   * @param threadPriority one of android.os.Process.THREAD_PRIORITY_* values.
+   */
+  public void setThreadPriority(int threadPriority) {
+    mThreadPriority = threadPriority;
+  }
+
+  public int getThreadPriority() {
+    return mThreadPriority;
+  }
+
+  /**
+   * Number of tasks waiting for a free thread of this pool.
+   */
+  public int getQueueDepth() {
+    return getQueue().size();
+  }
+
+  @Override
+  protected void beforeExecute(Thread thread, Runnable runnable) {
+    super.beforeExecute(thread, runnable);
+    Process.setThreadPriority(mThreadPriority);
+  }
+
+  /**
+   * AsyncTask forces THREAD_PRIORITY_BACKGROUND right before calling doInBackground,
+   * so tasks running on a TaskExecutor call this first to restore the pool's priority.
+   */
+  public static void applyThreadPriority() {
+    Thread thread = Thread.currentThread();
+    if (thread instanceof TaskThread) {
+      Process.setThreadPriority(((TaskThread) thread).getExecutor().getThreadPriority());
+    }
+  }
+
+  private class TaskThreadFactory implements ThreadFactory {
+    private final AtomicInteger mCount = new AtomicInteger(1);
+
+    @Override
+    public Thread newThread(@NonNull Runnable runnable) {
+      return new TaskThread(TaskExecutor.this, runnable, mName + " #" + mCount.getAndIncrement());
+    }
+  }
+
+  private static class TaskThread extends Thread {
+    private final TaskExecutor mExecutor;
+
+    TaskThread(TaskExecutor executor, Runnable runnable, String name) {
+      super(runnable, name);
+      mExecutor = executor;
+    }
+
+    TaskExecutor getExecutor() {
+      return mExecutor;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.reactnative.camera.tasks;
+
+import android.os.Process;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * The executors shared by every camera view, one per workload.
+ */
+public class TaskExecutors {
+  public static final String BAR_CODE_KEY = "barCode";
+  public static final String FACE_DETECTION_KEY = "faceDetection";
+  public static final String CAPTURE_KEY = "capture";
+  public static final String FRAME_PROCESSOR_KEY = "frameProcessor";
+  public static final String FILE_BAR_CODE_KEY = "fileBarCode";
+
+  private static final String THREADS_OPTION_KEY = "threads";
+  private static final String PRIORITY_OPTION_KEY = "priority";
+
+  public static final TaskExecutor BAR_CODE =
+      new TaskExecutor("RNCamera BarCode", 1, Process.THREAD_PRIORITY_DEFAULT);
+  public static final TaskExecutor FACE_DETECTION =
+      new TaskExecutor("RNCamera FaceDetection", 1, Process.THREAD_PRIORITY_BACKGROUND);
+  public static final TaskExecutor CAPTURE =
+      new TaskExecutor("RNCamera Capture", 1, Process.THREAD_PRIORITY_BACKGROUND);
+  public static final TaskExecutor FRAME_PROCESSOR =
+      new TaskExecutor("RNCamera FrameProcessor", 1, Process.THREAD_PRIORITY_BACKGROUND);
+  // Image files are independent of each other, so a batch is decoded on every core by default.
+  public static final TaskExecutor FILE_BAR_CODE = new TaskExecutor(
+      "RNCamera FileBarCode", Runtime.getRuntime().availableProcessors(), Process.THREAD_PRIORITY_BACKGROUND);
+
+  private static final TaskExecutor[] ALL = { BAR_CODE, FACE_DETECTION, CAPTURE, FRAME_PROCESSOR, FILE_BAR_CODE };
+  private static final String[] KEYS = {
+      BAR_CODE_KEY, FACE_DETECTION_KEY, CAPTURE_KEY, FRAME_PROCESSOR_KEY, FILE_BAR_CODE_KEY
+  };
+
+  /**
+   * Applies `{ barCode: { threads, priority }, faceDetection: {...}, capture: {...}, frameProcessor: {...},
+   * fileBarCode: {...} }`.
+   * Missing workloads or fields keep their current value.
+   */
+  public static void configure(ReadableMap options) {
+    for (int i = 0; i < ALL.length; i++) {
+      if (!options.hasKey(KEYS[i])) {
+        continue;
+      }
+      ReadableMap executorOptions = options.getMap(KEYS[i]);
+      if (executorOptions.hasKey(THREADS_OPTION_KEY)) {
+        ALL[i].setThreadCount(executorOptions.getInt(THREADS_OPTION_KEY));
+      }
+      if (executorOptions.hasKey(PRIORITY_OPTION_KEY)) {
+        ALL[i].setThreadPriority(executorOptions.getInt(PRIORITY_OPTION_KEY));
+      }
+    }
+  }
+
+  public static WritableMap getStatus() {
+    WritableMap status = Arguments.createMap();
+    for (int i = 0; i < ALL.length; i++) {
+      WritableMap executorStatus = Arguments.createMap();
+      executorStatus.putInt("threads", ALL[i].getThreadCount());
+      executorStatus.putInt("priority", ALL[i].getThreadPriority());
+      executorStatus.putInt("active", ALL[i].getActiveCount());
+      executorStatus.putInt("queueDepth", ALL[i].getQueueDepth());
+      status.putMap(KEYS[i], executorStatus);
+    }
+    return status;
+  }
+}
@@ -0,0 +1,228 @@
+package org.reactnative.camera.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bar code reader trying one group of formats at a time, most recently read group first.
+ *
+ * MultiFormatReader tries its readers in a fixed order on every frame. When adaptive, this reader
+ * splits the formats into three groups: the 1D formats, read by one reader scanning the rows of
+ * the frame once for all of them, QR code, and the heavyweight 2D formats. Groups are tried in
+ * most-recently-read order, and the heavyweight group only every few frames unless it was read
+ * recently. All attempts share the BinaryBitmap, so the frame is binarized once. When not
+ * adaptive, it is a plain MultiFormatReader.
+ *
+ * Decoding and the order of the groups are guarded by the reader, counters may be read from any
+ * thread without waiting for a decode.
+ */
+public class AdaptiveBarCodeReader {
+  // Formats MultiFormatReader decodes when none is requested
+  private static final BarcodeFormat[] ALL_FORMATS = {
+      BarcodeFormat.UPC_A, BarcodeFormat.UPC_E, BarcodeFormat.EAN_13, BarcodeFormat.EAN_8,
+      BarcodeFormat.CODABAR, BarcodeFormat.CODE_39, BarcodeFormat.CODE_93, BarcodeFormat.CODE_128,
+      BarcodeFormat.ITF, BarcodeFormat.RSS_14, BarcodeFormat.RSS_EXPANDED, BarcodeFormat.QR_CODE,
+      BarcodeFormat.DATA_MATRIX, BarcodeFormat.AZTEC, BarcodeFormat.PDF_417, BarcodeFormat.MAXICODE
+  };
+  private static final EnumSet<BarcodeFormat> ONE_D_FORMATS = EnumSet.of(
+      BarcodeFormat.UPC_A, BarcodeFormat.UPC_E, BarcodeFormat.EAN_13, BarcodeFormat.EAN_8,
+      BarcodeFormat.CODABAR, BarcodeFormat.CODE_39, BarcodeFormat.CODE_93, BarcodeFormat.CODE_128,
+      BarcodeFormat.ITF, BarcodeFormat.RSS_14, BarcodeFormat.RSS_EXPANDED
+  );
+  private static final EnumSet<BarcodeFormat> HEAVY_FORMATS = EnumSet.of(
+      BarcodeFormat.PDF_417, BarcodeFormat.DATA_MATRIX, BarcodeFormat.AZTEC, BarcodeFormat.MAXICODE
+  );
+  // The heavyweight group, when not read in the last RECENT_FRAMES frames, is tried every HEAVY_INTERVAL frames
+  private static final int HEAVY_INTERVAL = 4;
+  private static final int RECENT_FRAMES = 30;
+
+  private final MultiFormatReader mReader = new MultiFormatReader();
+  private final MultiFormatReader mTryHarderReader = new MultiFormatReader();
+  private Map<DecodeHintType, Object> mHints = new EnumMap<>(DecodeHintType.class);
+  private volatile boolean mAdaptive = false;
+
+  // Adaptive state, in most-recently-read order and guarded by this
+  private final List<GroupReader> mGroupReaders = new ArrayList<>();
+  private long mFrameCount = 0;
+
+  public synchronized void setHints(Map<DecodeHintType, Object> hints) {
+    mHints = new EnumMap<>(DecodeHintType.class);
+    mHints.putAll(hints);
+    mReader.setHints(mHints);
+    Map<DecodeHintType, Object> tryHarderHints = new EnumMap<>(DecodeHintType.class);
+    tryHarderHints.putAll(mHints);
+    tryHarderHints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    mTryHarderReader.setHints(tryHarderHints);
+
+    @SuppressWarnings("unchecked")
+    Collection<BarcodeFormat> formats = (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    EnumSet<BarcodeFormat> oneDFormats = EnumSet.noneOf(BarcodeFormat.class);
+    EnumSet<BarcodeFormat> qrFormats = EnumSet.noneOf(BarcodeFormat.class);
+    EnumSet<BarcodeFormat> heavyFormats = EnumSet.noneOf(BarcodeFormat.class);
+    for (BarcodeFormat format : ALL_FORMATS) {
+      if (formats != null && !formats.isEmpty() && !formats.contains(format)) {
+        continue;
+      }
+      if (ONE_D_FORMATS.contains(format)) {
+        oneDFormats.add(format);
+      } else if (HEAVY_FORMATS.contains(format)) {
+        heavyFormats.add(format);
+      } else {
+        qrFormats.add(format);
+      }
+    }
+    mGroupReaders.clear();
+    addGroupReader("1d", oneDFormats, false);
+    addGroupReader("qr", qrFormats, false);
+    addGroupReader("2d", heavyFormats, true);
+  }
+
+  public void setAdaptive(boolean adaptive) {
+    mAdaptive = adaptive;
+  }
+
+  /**
+   * Called once per frame before decoding it, however many times the frame is then decoded:
+   * downsampled, at full resolution, or in parts by GenericMultipleBarcodeReader.
+   */
+  public synchronized void startFrame() {
+    mFrameCount++;
+  }
+
+  public Result decodeWithState(BinaryBitmap image) throws NotFoundException {
+    return decodeWithState(image, false);
+  }
+
+  /**
+   * @param tryHarder spend more time looking for a code, trying every format
+   */
+  public synchronized Result decodeWithState(BinaryBitmap image, boolean tryHarder) throws NotFoundException {
+    if (tryHarder) {
+      return mTryHarderReader.decodeWithState(image);
+    }
+    if (!mAdaptive) {
+      return mReader.decodeWithState(image);
+    }
+
+    boolean heavyFrame = mFrameCount % HEAVY_INTERVAL == 0;
+    for (int i = 0; i < mGroupReaders.size(); i++) {
+      GroupReader groupReader = mGroupReaders.get(i);
+      if (groupReader.mHeavy && !heavyFrame && mFrameCount - groupReader.mLastHitFrame > RECENT_FRAMES) {
+        continue;
+      }
+      Result result = groupReader.decode(image, mFrameCount);
+      if (result != null) {
+        if (i > 0) {
+          // Move to front
+          mGroupReaders.remove(i);
+          mGroupReaders.add(0, groupReader);
+        }
+        return result;
+      }
+    }
+    throw NotFoundException.getNotFoundInstance();
+  }
+
+  public synchronized void reset() {
+    mReader.reset();
+    mTryHarderReader.reset();
+    for (GroupReader groupReader : mGroupReaders) {
+      groupReader.mReader.reset();
+    }
+  }
+
+  /**
+   * @return the formats in the order they are tried, with the attempts of their group and their hits.
+   */
+  public WritableArray getFormatStats() {
+    List<GroupReader> groupReaders;
+    // Only copying the order waits for the lock
+    synchronized (this) {
+      groupReaders = new ArrayList<>(mGroupReaders);
+    }
+    WritableArray stats = Arguments.createArray();
+    for (GroupReader groupReader : groupReaders) {
+      for (Map.Entry<BarcodeFormat, long[]> entry : groupReader.mHits.entrySet()) {
+        WritableMap formatStats = Arguments.createMap();
+        formatStats.putString("format", entry.getKey().toString());
+        formatStats.putString("group", groupReader.mName);
+        formatStats.putDouble("attempts", groupReader.mAttempts);
+        formatStats.putDouble("hits", entry.getValue()[0]);
+        stats.pushMap(formatStats);
+      }
+    }
+    return stats;
+  }
+
+  public synchronized void resetFormatStats() {
+    for (GroupReader groupReader : mGroupReaders) {
+      groupReader.mAttempts = 0;
+      for (long[] hits : groupReader.mHits.values()) {
+        hits[0] = 0;
+      }
+    }
+  }
+
+  private void addGroupReader(String name, EnumSet<BarcodeFormat> formats, boolean heavy) {
+    if (!formats.isEmpty()) {
+      mGroupReaders.add(new GroupReader(name, formats, heavy, mHints));
+    }
+  }
+
+  /**
+   * Reads a group of formats in one pass. For the 1D formats, MultiFormatReader delegates to a
+   * single MultiFormatOneDReader, which scans each row once for all of them.
+   */
+  private static class GroupReader {
+    final String mName;
+    final boolean mHeavy;
+    final MultiFormatReader mReader = new MultiFormatReader();
+    // Hits of each format of the group, in a one element array so the map is never modified
+    final Map<BarcodeFormat, long[]> mHits = new EnumMap<>(BarcodeFormat.class);
+    volatile long mAttempts = 0;
+    long mLastHitFrame = Long.MIN_VALUE / 2;
+
+    GroupReader(String name, EnumSet<BarcodeFormat> formats, boolean heavy, Map<DecodeHintType, Object> hints) {
+      mName = name;
+      mHeavy = heavy;
+      for (BarcodeFormat format : formats) {
+        mHits.put(format, new long[1]);
+      }
+      Map<DecodeHintType, Object> groupHints = new EnumMap<>(DecodeHintType.class);
+      groupHints.putAll(hints);
+      groupHints.put(DecodeHintType.POSSIBLE_FORMATS, formats);
+      mReader.setHints(groupHints);
+    }
+
+    Result decode(BinaryBitmap image, long frame) {
+      mAttempts++;
+      try {
+        Result result = mReader.decodeWithState(image);
+        long[] hits = mHits.get(result.getBarcodeFormat());
+        if (hits != null) {
+          hits[0]++;
+        }
+        mLastHitFrame = frame;
+        return result;
+      } catch (NotFoundException e) {
+        return null;
+      } finally {
+        mReader.reset();
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package org.reactnative.camera.utils;
+
+import android.graphics.Rect;
+
+import com.google.zxing.Result;
+
+/**
+ * Engine reading bar codes from NV21 preview frames. A decoder is used by one task at a time.
+ */
+public interface BarCodeDecoder {
+  /**
+   * @param region part of the frame to search
+   * @param multiple whether every code of the region is wanted, or the first one found
+   * @return the codes read, with result points in frame coordinates, or null if none was read.
+   */
+  Result[] decode(byte[] data, int width, int height, Rect region, boolean multiple);
+
+  String getName();
+
+  void release();
+}
@@ -0,0 +1,186 @@
+package org.reactnative.camera.utils;
+
+import android.content.Context;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.google.zxing.BarcodeFormat;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Chooses the bar code decoder of a view: ZXing, Mobile Vision, or in auto mode the faster
+ * of both on this device.
+ *
+ * In auto mode the first frames are decoded alternately by both engines. Once each has decoded
+ * ten frames, the one with the lower mean decode time is kept, unless it read codes
+ * in less than half as many frames as the other. Mobile Vision is skipped when it is not
+ * operational or reads none of the requested formats. Frames are decoded one at a time.
+ */
+public class BarCodeDecoderSelector {
+  public static final String MODE_ZXING = ZXingBarCodeDecoder.NAME;
+  public static final String MODE_VISION = VisionBarCodeDecoder.NAME;
+  public static final String MODE_AUTO = "auto";
+
+  // Frames decoded by each engine before auto mode keeps one
+  private static final int BENCHMARK_FRAMES = 10;
+
+  private static final int ZXING = 0;
+  private static final int VISION = 1;
+
+  private final Context mContext;
+  private final ZXingBarCodeDecoder mZXingDecoder;
+  private VisionBarCodeDecoder mVisionDecoder = null;
+  private Set<BarcodeFormat> mFormats = EnumSet.noneOf(BarcodeFormat.class);
+  private String mMode = MODE_ZXING;
+
+  // Auto mode state
+  private BarCodeDecoder mChosenDecoder = null;
+  private final long[] mFrames = new long[2];
+  private final long[] mNanos = new long[2];
+  private final long[] mHits = new long[2];
+
+  public BarCodeDecoderSelector(Context context, ZXingBarCodeDecoder zxingDecoder) {
+    mContext = context;
+    mZXingDecoder = zxingDecoder;
+  }
+
+  public synchronized void setMode(String mode) {
+    mMode = MODE_VISION.equals(mode) || MODE_AUTO.equals(mode) ? mode : MODE_ZXING;
+    resetBenchmark();
+  }
+
+  public synchronized void setFormats(Set<BarcodeFormat> formats) {
+    mFormats = EnumSet.noneOf(BarcodeFormat.class);
+    mFormats.addAll(formats);
+    releaseVisionDecoder();
+    resetBenchmark();
+  }
+
+  /**
+   * @return the decoder to use for the next frame.
+   */
+  public synchronized BarCodeDecoder next() {
+    if (MODE_ZXING.equals(mMode)) {
+      return mZXingDecoder;
+    }
+    if (mChosenDecoder != null) {
+      return mChosenDecoder;
+    }
+    VisionBarCodeDecoder visionDecoder = getVisionDecoder();
+    if (visionDecoder == null || !visionDecoder.isOperational()) {
+      // Play services may still be downloading the detector, try it again on later frames
+      return mZXingDecoder;
+    }
+    if (MODE_VISION.equals(mMode)) {
+      return visionDecoder;
+    }
+    return mFrames[VISION] < mFrames[ZXING] ? visionDecoder : mZXingDecoder;
+  }
+
+  /**
+   * Records the decoding of a frame by the decoder returned by next().
+   */
+  public synchronized void record(BarCodeDecoder decoder, long durationNanos, boolean found) {
+    if (!MODE_AUTO.equals(mMode) || mChosenDecoder != null) {
+      return;
+    }
+    int engine = decoder == mZXingDecoder ? ZXING : VISION;
+    mFrames[engine]++;
+    mNanos[engine] += durationNanos;
+    if (found) {
+      mHits[engine]++;
+    }
+    if (mFrames[ZXING] >= BENCHMARK_FRAMES && mFrames[VISION] >= BENCHMARK_FRAMES) {
+      mChosenDecoder = chooseFaster();
+    }
+  }
+
+  /**
+   * @return the decoder decoding the frames, or null while benchmarking.
+   */
+  public synchronized String getActiveDecoderName() {
+    if (MODE_AUTO.equals(mMode)) {
+      if (mChosenDecoder != null) {
+        return mChosenDecoder.getName();
+      }
+      if (!VisionBarCodeDecoder.canRead(mFormats) || (mVisionDecoder != null && !mVisionDecoder.isOperational())) {
+        // There is no benchmark, next() falls back to ZXing
+        return ZXingBarCodeDecoder.NAME;
+      }
+      return null;
+    }
+    if (MODE_VISION.equals(mMode) && mVisionDecoder != null && mVisionDecoder.isOperational()) {
+      return VisionBarCodeDecoder.NAME;
+    }
+    return ZXingBarCodeDecoder.NAME;
+  }
+
+  public synchronized void release() {
+    releaseVisionDecoder();
+  }
+
+  /**
+   * @return `{ mode, active, benchmark: { zxing: { frames, mean, hits }, vision: {...} } }`,
+   * mean in milliseconds and active null while benchmarking.
+   */
+  public synchronized WritableMap toMap() {
+    WritableMap map = Arguments.createMap();
+    map.putString("mode", mMode);
+    String active = getActiveDecoderName();
+    if (active != null) {
+      map.putString("active", active);
+    } else {
+      map.putNull("active");
+    }
+    WritableMap benchmark = Arguments.createMap();
+    benchmark.putMap(ZXingBarCodeDecoder.NAME, benchmarkToMap(ZXING));
+    benchmark.putMap(VisionBarCodeDecoder.NAME, benchmarkToMap(VISION));
+    map.putMap("benchmark", benchmark);
+    return map;
+  }
+
+  private WritableMap benchmarkToMap(int engine) {
+    WritableMap map = Arguments.createMap();
+    map.putDouble("frames", mFrames[engine]);
+    map.putDouble("mean", mFrames[engine] > 0 ? mNanos[engine] / (double) mFrames[engine] / 1E6 : 0);
+    map.putDouble("hits", mHits[engine]);
+    return map;
+  }
+
+  private BarCodeDecoder chooseFaster() {
+    if (mHits[ZXING] > 2 * mHits[VISION]) {
+      return mZXingDecoder;
+    }
+    if (mHits[VISION] > 2 * mHits[ZXING]) {
+      return mVisionDecoder;
+    }
+    double zxingMean = mNanos[ZXING] / (double) mFrames[ZXING];
+    double visionMean = mNanos[VISION] / (double) mFrames[VISION];
+    return visionMean < zxingMean ? mVisionDecoder : mZXingDecoder;
+  }
+
+  private VisionBarCodeDecoder getVisionDecoder() {
+    if (mVisionDecoder == null && VisionBarCodeDecoder.canRead(mFormats)) {
+      mVisionDecoder = new VisionBarCodeDecoder(mContext, mFormats);
+    }
+    return mVisionDecoder;
+  }
+
+  private void releaseVisionDecoder() {
+    if (mVisionDecoder != null) {
+      mVisionDecoder.release();
+      mVisionDecoder = null;
+    }
+  }
+
+  private void resetBenchmark() {
+    mChosenDecoder = null;
+    for (int i = 0; i < 2; i++) {
+      mFrames[i] = 0;
+      mNanos[i] = 0;
+      mHits[i] = 0;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.reactnative.camera.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides which bar code sightings are sent to JS.
+ *
+ * A code is sent when it appears, then not again while it keeps being seen at least once per
+ * suppression window, except for an optional "still visible" heartbeat. Codes are keyed by format
+ * and text in an LRU map, so the oldest ones are forgotten beyond the entry cap.
+ */
+public class BarCodeEmissionCache {
+  public static final int DEFAULT_MAX_ENTRIES = 32;
+
+  private long mSuppressionWindowNanos = 0;
+  private long mHeartbeatIntervalNanos = 0;
+  private int mMaxEntries = DEFAULT_MAX_ENTRIES;
+
+  private final LinkedHashMap<String, Sighting> mSightings = new LinkedHashMap<String, Sighting>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Sighting> eldest) {
+      return size() > mMaxEntries;
+    }
+  };
+
+  /**
+   * @param suppressionWindow milliseconds, 0 sends every sighting
+   * @param maxEntries number of codes remembered
+   * @param heartbeatInterval milliseconds between two sendings of a code kept in view, 0 for none
+   */
+  public synchronized void configure(int suppressionWindow, int maxEntries, int heartbeatInterval) {
+    mSuppressionWindowNanos = Math.max(0, suppressionWindow) * 1000000L;
+    mMaxEntries = Math.max(1, maxEntries);
+    mHeartbeatIntervalNanos = Math.max(0, heartbeatInterval) * 1000000L;
+    mSightings.clear();
+  }
+
+  public synchronized boolean isEnabled() {
+    return mSuppressionWindowNanos > 0;
+  }
+
+  /**
+   * Records a sighting of the code.
+   *
+   * @return whether the sighting should be sent to JS.
+   */
+  public synchronized boolean shouldEmit(String format, String text, long now) {
+    if (mSuppressionWindowNanos == 0) {
+      return true;
+    }
+
+    String key = format + ":" + text;
+    Sighting sighting = mSightings.get(key);
+    if (sighting == null) {
+      sighting = new Sighting();
+      mSightings.put(key, sighting);
+    } else if (now - sighting.mLastSeen <= mSuppressionWindowNanos) {
+      sighting.mLastSeen = now;
+      if (mHeartbeatIntervalNanos > 0 && now - sighting.mLastEmitted >= mHeartbeatIntervalNanos) {
+        sighting.mLastEmitted = now;
+        return true;
+      }
+      return false;
+    }
+    sighting.mLastSeen = now;
+    sighting.mLastEmitted = now;
+    return true;
+  }
+
+  public synchronized void clear() {
+    mSightings.clear();
+  }
+
+  private static class Sighting {
+    long mLastSeen;
+    long mLastEmitted;
+  }
+}
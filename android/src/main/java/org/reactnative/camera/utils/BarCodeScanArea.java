@@ -0,0 +1,120 @@
+package org.reactnative.camera.utils;
+
+import android.graphics.Rect;
+
+/**
+ * Area of the preview, in normalized view coordinates, in which bar codes are searched.
+ *
+ * The preview fills the view while keeping its aspect ratio (see RNCameraView.relayoutPreview),
+ * so the area is first mapped through that center crop to the upright frame, then through the
+ * frame rotation to the sub-rectangle of the camera's frame handed to ZXing.
+ */
+public class BarCodeScanArea {
+  private final float mX;
+  private final float mY;
+  private final float mWidth;
+  private final float mHeight;
+
+  // Last mapping, frames rarely change size or orientation
+  private int mLastFrameWidth = -1;
+  private int mLastFrameHeight = -1;
+  private int mLastRotation = -1;
+  private int mLastViewWidth = -1;
+  private int mLastViewHeight = -1;
+  private boolean mLastMirrored = false;
+  private Rect mLastFrameRect = null;
+
+  public BarCodeScanArea(float x, float y, float width, float height) {
+    mX = clamp(x);
+    mY = clamp(y);
+    mWidth = clamp(width);
+    mHeight = clamp(height);
+  }
+
+  /**
+   * @param frameWidth width of the frame as delivered by the camera
+   * @param frameHeight height of the frame as delivered by the camera
+   * @param rotation clockwise rotation making the frame upright (RNCameraViewHelper.getCorrectCameraRotation)
+   * @param mirrored whether the preview is displayed mirrored (front camera)
+   * @return the area in frame coordinates, at least one pixel large. Callers must not modify it.
+   */
+  public synchronized Rect toFrameRect(int frameWidth, int frameHeight, int rotation, int viewWidth, int viewHeight, boolean mirrored) {
+    if (mLastFrameRect != null && frameWidth == mLastFrameWidth && frameHeight == mLastFrameHeight
+        && rotation == mLastRotation && viewWidth == mLastViewWidth && viewHeight == mLastViewHeight
+        && mirrored == mLastMirrored) {
+      return mLastFrameRect;
+    }
+
+    boolean rotated = rotation % 180 == 90;
+    float uprightWidth = rotated ? frameHeight : frameWidth;
+    float uprightHeight = rotated ? frameWidth : frameHeight;
+
+    // Part of the upright frame visible in the view
+    float visibleWidth = uprightWidth;
+    float visibleHeight = uprightHeight;
+    if (viewWidth > 0 && viewHeight > 0) {
+      float scale = Math.max(viewWidth / uprightWidth, viewHeight / uprightHeight);
+      visibleWidth = Math.min(uprightWidth, viewWidth / scale);
+      visibleHeight = Math.min(uprightHeight, viewHeight / scale);
+    }
+    float x = mirrored ? 1 - mX - mWidth : mX;
+    float left = (uprightWidth - visibleWidth) / 2 + x * visibleWidth;
+    float top = (uprightHeight - visibleHeight) / 2 + mY * visibleHeight;
+    float right = left + mWidth * visibleWidth;
+    float bottom = top + mHeight * visibleHeight;
+
+    // Upright coordinates back to frame coordinates
+    float frameLeft;
+    float frameTop;
+    float frameRight;
+    float frameBottom;
+    switch (rotation) {
+      case 90:
+        frameLeft = top;
+        frameTop = frameHeight - right;
+        frameRight = bottom;
+        frameBottom = frameHeight - left;
+        break;
+      case 180:
+        frameLeft = frameWidth - right;
+        frameTop = frameHeight - bottom;
+        frameRight = frameWidth - left;
+        frameBottom = frameHeight - top;
+        break;
+      case 270:
+        frameLeft = frameWidth - bottom;
+        frameTop = left;
+        frameRight = frameWidth - top;
+        frameBottom = right;
+        break;
+      default:
+        frameLeft = left;
+        frameTop = top;
+        frameRight = right;
+        frameBottom = bottom;
+    }
+
+    Rect frameRect = new Rect(
+        Math.max(0, (int) frameLeft),
+        Math.max(0, (int) frameTop),
+        Math.min(frameWidth, (int) Math.ceil(frameRight)),
+        Math.min(frameHeight, (int) Math.ceil(frameBottom))
+    );
+    if (frameRect.width() < 1 || frameRect.height() < 1) {
+      frameRect.set(0, 0, frameWidth, frameHeight);
+    }
+
+    mLastFrameWidth = frameWidth;
+    mLastFrameHeight = frameHeight;
+    mLastRotation = rotation;
+    mLastViewWidth = viewWidth;
+    mLastViewHeight = viewHeight;
+    mLastMirrored = mirrored;
+    mLastFrameRect = frameRect;
+    return frameRect;
+  }
+
+  private static float clamp(float value) {
+    return Math.max(0, Math.min(1, value));
+  }
+}
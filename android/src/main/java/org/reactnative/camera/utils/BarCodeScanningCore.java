@@ -0,0 +1,235 @@
+package org.reactnative.camera.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Reader;
+import com.google.zxing.Result;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bar code scanning state shared by RNCamera, the legacy RCTCamera and file decoding: bar code
+ * type parsing and scanning metrics. Both views scan on TaskExecutors.BAR_CODE.
+ *
+ * The pool of configured readers serves RCTCamera and file decoding only. RNCamera decodes its
+ * frames with its own AdaptiveBarCodeReader, which keeps per view state (format group order,
+ * decode ladder) that a pooled reader would lose between frames.
+ *
+ * Creating a MultiFormatReader for a set of formats builds one reader per format, so readers are
+ * pooled by configuration and handed back after each decode instead of being recreated.
+ */
+public class BarCodeScanningCore {
+  public static final int SOURCE_RN_CAMERA = 0;
+  public static final int SOURCE_RCT_CAMERA = 1;
+  public static final int SOURCE_FILE = 2;
+
+  private static final String[] SOURCE_NAMES = { "rnCamera", "rctCamera", "file" };
+
+  // Names of the legacy RCTCamera bar code types, the RNCamera ones being the format names
+  private static final Map<String, BarcodeFormat> TYPE_NAMES;
+  static {
+    Map<String, BarcodeFormat> names = new HashMap<>();
+    names.put("aztec", BarcodeFormat.AZTEC);
+    names.put("ean13", BarcodeFormat.EAN_13);
+    names.put("ean8", BarcodeFormat.EAN_8);
+    names.put("qr", BarcodeFormat.QR_CODE);
+    names.put("pdf417", BarcodeFormat.PDF_417);
+    names.put("upce", BarcodeFormat.UPC_E);
+    names.put("upc_e", BarcodeFormat.UPC_E);
+    names.put("datamatrix", BarcodeFormat.DATA_MATRIX);
+    names.put("code39", BarcodeFormat.CODE_39);
+    names.put("code93", BarcodeFormat.CODE_93);
+    names.put("interleaved2of5", BarcodeFormat.ITF);
+    names.put("codabar", BarcodeFormat.CODABAR);
+    names.put("code128", BarcodeFormat.CODE_128);
+    names.put("maxicode", BarcodeFormat.MAXICODE);
+    names.put("rss14", BarcodeFormat.RSS_14);
+    names.put("rssexpanded", BarcodeFormat.RSS_EXPANDED);
+    names.put("upca", BarcodeFormat.UPC_A);
+    names.put("upc_a", BarcodeFormat.UPC_A);
+    names.put("upceanextension", BarcodeFormat.UPC_EAN_EXTENSION);
+    names.put("upc_ean", BarcodeFormat.UPC_EAN_EXTENSION);
+    TYPE_NAMES = Collections.unmodifiableMap(names);
+  }
+
+  // Idle readers kept per configuration
+  private static final int MAX_IDLE_READERS = 4;
+
+  private static final Map<String, ArrayDeque<MultiFormatReader>> sIdleReaders = new HashMap<>();
+  private static final Map<MultiFormatReader, String> sReaderKeys = new IdentityHashMap<>();
+
+  private static final AtomicLong[] sScans = newCounters();
+  private static final AtomicLong[] sHits = newCounters();
+  private static final LatencyHistogram[] sDecodeLatencies = {
+      new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()
+  };
+
+  /**
+   * @param type a BarcodeFormat name ("QR_CODE", the values of RNCamera.Constants.BarCodeType)
+   *             or a legacy RCTCamera type name ("qr").
+   * @return the format, or null if the type is unknown.
+   */
+  public static BarcodeFormat parseFormat(String type) {
+    if (type == null) {
+      return null;
+    }
+    BarcodeFormat format = TYPE_NAMES.get(type);
+    if (format != null) {
+      return format;
+    }
+    try {
+      return BarcodeFormat.valueOf(type);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return the known formats among the types, unknown types are ignored.
+   */
+  public static EnumSet<BarcodeFormat> parseFormats(Collection<String> types) {
+    EnumSet<BarcodeFormat> formats = EnumSet.noneOf(BarcodeFormat.class);
+    if (types != null) {
+      for (String type : types) {
+        BarcodeFormat format = parseFormat(type);
+        if (format != null) {
+          formats.add(format);
+        }
+      }
+    }
+    return formats;
+  }
+
+  /**
+   * @param formats formats to decode, all formats when empty.
+   */
+  public static Map<DecodeHintType, Object> hintsFor(Set<BarcodeFormat> formats, boolean tryHarder) {
+    Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+    if (!formats.isEmpty()) {
+      hints.put(DecodeHintType.POSSIBLE_FORMATS, EnumSet.copyOf(formats));
+    }
+    if (tryHarder) {
+      hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    }
+    return hints;
+  }
+
+  /**
+   * @return a reader set up for the formats, to hand back with releaseReader() once done.
+   */
+  public static MultiFormatReader acquireReader(Set<BarcodeFormat> formats, boolean tryHarder) {
+    String key = formats.toString() + tryHarder;
+    synchronized (sIdleReaders) {
+      ArrayDeque<MultiFormatReader> idleReaders = sIdleReaders.get(key);
+      if (idleReaders != null && !idleReaders.isEmpty()) {
+        return idleReaders.pop();
+      }
+    }
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(hintsFor(formats, tryHarder));
+    synchronized (sIdleReaders) {
+      sReaderKeys.put(reader, key);
+    }
+    return reader;
+  }
+
+  public static void releaseReader(MultiFormatReader reader) {
+    reader.reset();
+    synchronized (sIdleReaders) {
+      String key = sReaderKeys.get(reader);
+      if (key == null) {
+        return;
+      }
+      ArrayDeque<MultiFormatReader> idleReaders = sIdleReaders.get(key);
+      if (idleReaders == null) {
+        idleReaders = new ArrayDeque<>();
+        sIdleReaders.put(key, idleReaders);
+      }
+      if (idleReaders.size() < MAX_IDLE_READERS) {
+        idleReaders.push(reader);
+      } else {
+        sReaderKeys.remove(reader);
+      }
+    }
+  }
+
+  /**
+   * MultiFormatReader.decode(image, hints) rebuilds the reader for the given hints, which
+   * GenericMultipleBarcodeReader calls with its own. The returned reader keeps the pooled
+   * reader's configuration instead.
+   */
+  public static Reader keepingHints(final MultiFormatReader reader) {
+    return new Reader() {
+      @Override
+      public Result decode(BinaryBitmap image) throws NotFoundException {
+        return reader.decodeWithState(image);
+      }
+
+      @Override
+      public Result decode(BinaryBitmap image, Map<DecodeHintType, ?> hints) throws NotFoundException {
+        return reader.decodeWithState(image);
+      }
+
+      @Override
+      public void reset() {
+        reader.reset();
+      }
+    };
+  }
+
+  /**
+   * Records one decode attempt of a frame or image.
+   */
+  public static void recordScan(int source, long durationNanos, boolean found) {
+    sScans[source].incrementAndGet();
+    if (found) {
+      sHits[source].incrementAndGet();
+    }
+    sDecodeLatencies[source].record(durationNanos);
+  }
+
+  /**
+   * @return `{ rnCamera: { scans, hits, decode: {...} }, rctCamera: {...}, file: {...} }`.
+   */
+  public static WritableMap getStats() {
+    WritableMap stats = Arguments.createMap();
+    for (int i = 0; i < SOURCE_NAMES.length; i++) {
+      WritableMap sourceStats = Arguments.createMap();
+      sourceStats.putDouble("scans", sScans[i].get());
+      sourceStats.putDouble("hits", sHits[i].get());
+      sourceStats.putMap("decode", sDecodeLatencies[i].toMap());
+      stats.putMap(SOURCE_NAMES[i], sourceStats);
+    }
+    return stats;
+  }
+
+  public static void resetStats() {
+    for (int i = 0; i < SOURCE_NAMES.length; i++) {
+      sScans[i].set(0);
+      sHits[i].set(0);
+      sDecodeLatencies[i].reset();
+    }
+  }
+
+  private static AtomicLong[] newCounters() {
+    AtomicLong[] counters = new AtomicLong[SOURCE_NAMES.length];
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = new AtomicLong();
+    }
+    return counters;
+  }
+}
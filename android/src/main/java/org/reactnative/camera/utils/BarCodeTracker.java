@@ -0,0 +1,161 @@
+package org.reactnative.camera.utils;
+
+import android.graphics.Rect;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Predicts where the last read bar code will be in the next frame, so that only a window around
+ * it is decoded instead of the whole frame.
+ *
+ * The window is the bounding box of the last result points, moved by the displacement measured
+ * between the last two reads and padded by padding times its largest side on each side. After
+ * maxMisses frames in a row without a read in the window, the whole frame is searched again.
+ * Frames are decoded one at a time, predict() and update() are called in turn for each frame.
+ */
+public class BarCodeTracker {
+  public static final float DEFAULT_PADDING = 0.5f;
+  public static final int DEFAULT_MAX_MISSES = 3;
+
+  // Windows narrower than this are grown, ZXing needs a quiet zone around the code
+  private static final int MIN_WINDOW_SIZE = 96;
+
+  private volatile boolean mEnabled = false;
+  private volatile float mPadding = DEFAULT_PADDING;
+  private volatile int mMaxMisses = DEFAULT_MAX_MISSES;
+
+  private Rect mLastBox = null;
+  private int mDeltaX = 0;
+  private int mDeltaY = 0;
+  private int mMisses = 0;
+  private int mFrameWidth = 0;
+  private int mFrameHeight = 0;
+
+  private final AtomicLong mWindowFrames = new AtomicLong();
+  private final AtomicLong mFullFrames = new AtomicLong();
+
+  public void configure(boolean enabled, float padding, int maxMisses) {
+    mPadding = Math.max(0, padding);
+    mMaxMisses = Math.max(1, maxMisses);
+    mEnabled = enabled;
+    if (!enabled) {
+      reset();
+    }
+  }
+
+  public boolean isEnabled() {
+    return mEnabled;
+  }
+
+  /**
+   * @param searchArea the part of the frame that would be decoded without tracking
+   * @return the window to decode, inside searchArea, or searchArea when nothing is tracked.
+   */
+  public synchronized Rect predict(int frameWidth, int frameHeight, Rect searchArea) {
+    if (!mEnabled) {
+      return searchArea;
+    }
+    if (mLastBox == null || frameWidth != mFrameWidth || frameHeight != mFrameHeight) {
+      mLastBox = null;
+      mFullFrames.incrementAndGet();
+      return searchArea;
+    }
+
+    Rect window = new Rect(mLastBox);
+    window.offset(mDeltaX, mDeltaY);
+    window.union(mLastBox);
+    int padding = (int) (Math.max(mLastBox.width(), mLastBox.height()) * mPadding);
+    window.inset(-padding, -padding);
+    if (window.width() < MIN_WINDOW_SIZE) {
+      window.inset(-(MIN_WINDOW_SIZE - window.width() + 1) / 2, 0);
+    }
+    if (window.height() < MIN_WINDOW_SIZE) {
+      window.inset(0, -(MIN_WINDOW_SIZE - window.height() + 1) / 2);
+    }
+    if (!window.intersect(searchArea)) {
+      mLastBox = null;
+      mFullFrames.incrementAndGet();
+      return searchArea;
+    }
+    mWindowFrames.incrementAndGet();
+    return window;
+  }
+
+  /**
+   * @param results the codes read in the frame, in frame coordinates, or null if none was read.
+   */
+  public synchronized void update(Result[] results, int frameWidth, int frameHeight) {
+    if (!mEnabled) {
+      return;
+    }
+    Rect box = results != null ? boundingBox(results) : null;
+    if (box == null) {
+      mMisses++;
+      if (mMisses >= mMaxMisses) {
+        mLastBox = null;
+      }
+      return;
+    }
+
+    if (mLastBox != null) {
+      mDeltaX = box.centerX() - mLastBox.centerX();
+      mDeltaY = box.centerY() - mLastBox.centerY();
+    } else {
+      mDeltaX = 0;
+      mDeltaY = 0;
+    }
+    mLastBox = box;
+    mMisses = 0;
+    mFrameWidth = frameWidth;
+    mFrameHeight = frameHeight;
+  }
+
+  public synchronized void reset() {
+    mLastBox = null;
+    mMisses = 0;
+  }
+
+  /**
+   * @return `{ windowFrames, fullFrames }`, the number of frames decoded in a predicted window
+   * and in the whole search area while tracking was enabled.
+   */
+  public WritableMap toMap() {
+    WritableMap map = Arguments.createMap();
+    map.putDouble("windowFrames", mWindowFrames.get());
+    map.putDouble("fullFrames", mFullFrames.get());
+    return map;
+  }
+
+  public void resetStats() {
+    mWindowFrames.set(0);
+    mFullFrames.set(0);
+  }
+
+  private static Rect boundingBox(Result[] results) {
+    Rect box = null;
+    for (Result result : results) {
+      ResultPoint[] points = result.getResultPoints();
+      if (points == null) {
+        continue;
+      }
+      for (ResultPoint point : points) {
+        if (point == null) {
+          continue;
+        }
+        int x = (int) point.getX();
+        int y = (int) point.getY();
+        if (box == null) {
+          box = new Rect(x, y, x + 1, y + 1);
+        } else {
+          box.union(x, y);
+        }
+      }
+    }
+    return box;
+  }
+}
@@ -6,7 +6,6 @@ import android.renderscript.Allocation;
 import android.renderscript.Element;
 import android.renderscript.RenderScript;
 import android.renderscript.Type;
-import android.util.Log;
 
 import com.example.android.rs.hellocompute.ScriptC_rotate;
 
@@ -95,21 +94,15 @@ public class BitmapRotate {
     public Bitmap refreshBitmap(Bitmap bitmap, int rotation) {
         lock.lock();
         try {
-            long start = System.nanoTime();
-
             int width = bitmap.getWidth();
             int height = bitmap.getHeight();
             this.prepare(width, height, rotation);
 
+            long traceStart = Tracer.begin(Tracer.BITMAP_ROTATE_READ_PIXELS);
             int[] pixels = new int[width * height];
             bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
-            /*for (int i=0; i<2000; i++) {
-                Log.d("PIXEL", "" + Long.toHexString(pixels[i] & 0xFFFFFFFFl));
-            }*/
-            Log.d("PROFILE", "Get pixels: " + (System.nanoTime() - start) / 1E6);
-
             mInAllocation.copyFromUnchecked(pixels);
-            Log.d("PROFILE", "Copy pixels to alloc: " + (System.nanoTime() - start) / 1E6);
+            Tracer.end(Tracer.BITMAP_ROTATE_READ_PIXELS, traceStart);
 
             mScript.set_gFixByteOrder(false);
 
@@ -122,8 +115,6 @@ public class BitmapRotate {
     public Bitmap refreshBitmap(Allocation aIn, int rotation) {
         lock.lock();
         try {
-            long start = System.nanoTime();
-
             int width = aIn.getType().getX();
             int height = aIn.getType().getY();
             this.prepare(width, height, rotation);
@@ -133,11 +124,11 @@ public class BitmapRotate {
             int c2 = w * h * 4;
             int c = aIn.getBytesSize();
             assert c == c2;
+            long traceStart = Tracer.begin(Tracer.BITMAP_ROTATE_READ_PIXELS);
             byte[] pixels = new byte[c];
             aIn.copyTo(pixels);
-            Log.d("PROFILE", "Get pixels: " + (System.nanoTime() - start) / 1E6);
             mInAllocation.copyFrom(pixels);
-            Log.d("PROFILE", "Copy from pixels: " + (System.nanoTime() - start) / 1E6);
+            Tracer.end(Tracer.BITMAP_ROTATE_READ_PIXELS, traceStart);
 
             mScript.set_gFixByteOrder(true);
             return refreshBitmap();
@@ -147,22 +138,19 @@ public class BitmapRotate {
     }
 
     private Bitmap refreshBitmap() {
-        long start = System.nanoTime();
-
-        Log.d("PROFILE", "Set script variables: " + (System.nanoTime() - start) / 1E6);
-
+        long traceStart = Tracer.begin(Tracer.BITMAP_ROTATE_RUN_SCRIPT);
         mScript.forEach_root(mRowIndicesAllocation, mRowIndicesAllocation);
-        Log.d("PROFILE", "Run script: " + (System.nanoTime() - start) / 1E6);
+        Tracer.end(Tracer.BITMAP_ROTATE_RUN_SCRIPT, traceStart);
 
+        traceStart = Tracer.begin(Tracer.BITMAP_ROTATE_WRITE_PIXELS);
         int[] pixels = new int[mWidth * mHeight];
         assert mRotateAllocation.getBytesSize() == pixels.length;
         mRotateAllocation.copyTo(pixels);
-        Log.d("PROFILE", "Get pixels: " + (System.nanoTime() - start) / 1E6);
 
         int bmW = mBitmap.getWidth();
         int bmH = mBitmap.getHeight();
         mBitmap.setPixels(pixels, 0, bmW, 0, 0, bmW, bmH);
-        Log.d("PROFILE", "Set pixels: " + (System.nanoTime() - start) / 1E6);
+        Tracer.end(Tracer.BITMAP_ROTATE_WRITE_PIXELS, traceStart);
 
         return mBitmap;
 /*
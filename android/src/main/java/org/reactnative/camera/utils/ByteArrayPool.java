@@ -0,0 +1,55 @@
+package org.reactnative.camera.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded pool of byte arrays, so that decoding a batch of images reuses a few large luma
+ * buffers instead of allocating one per image.
+ *
+ * Arrays handed out may be larger than requested. Released arrays are kept while the pool holds
+ * fewer than maxArrays of them and less than maxBytes in total, and dropped otherwise.
+ */
+public class ByteArrayPool {
+  private final int mMaxArrays;
+  private final long mMaxBytes;
+  private final List<byte[]> mArrays = new ArrayList<>();
+  private long mPooledBytes = 0;
+
+  public ByteArrayPool(int maxArrays, long maxBytes) {
+    mMaxArrays = maxArrays;
+    mMaxBytes = maxBytes;
+  }
+
+  /**
+   * @return the smallest pooled array holding at least size bytes, or a new one.
+   */
+  public synchronized byte[] acquire(int size) {
+    int bestIndex = -1;
+    for (int i = 0; i < mArrays.size(); i++) {
+      int length = mArrays.get(i).length;
+      if (length >= size && (bestIndex == -1 || length < mArrays.get(bestIndex).length)) {
+        bestIndex = i;
+      }
+    }
+    if (bestIndex == -1) {
+      return new byte[size];
+    }
+    byte[] array = mArrays.remove(bestIndex);
+    mPooledBytes -= array.length;
+    return array;
+  }
+
+  public synchronized void release(byte[] array) {
+    if (array == null || mArrays.size() >= mMaxArrays || mPooledBytes + array.length > mMaxBytes) {
+      return;
+    }
+    mArrays.add(array);
+    mPooledBytes += array.length;
+  }
+
+  public synchronized void clear() {
+    mArrays.clear();
+    mPooledBytes = 0;
+  }
+}
@@ -0,0 +1,66 @@
+package org.reactnative.camera.utils;
+
+/**
+ * Bounds the number of pictures being produced at the same time and tells what to do with
+ * requests overflowing that bound.
+ */
+public class CaptureLimiter {
+  // Overflowing requests wait for a capture to finish
+  public static final int POLICY_QUEUE = 0;
+  // Overflowing requests are rejected with E_CAPTURE_BUSY
+  public static final int POLICY_REJECT = 1;
+  // Overflowing requests share the picture of the last waiting request
+  public static final int POLICY_COALESCE = 2;
+
+  private int mMaxInFlight;
+  private int mPolicy = POLICY_QUEUE;
+  private int mInFlight = 0;
+
+  public CaptureLimiter(int maxInFlight) {
+    mMaxInFlight = Math.max(1, maxInFlight);
+  }
+
+  public synchronized void setMaxInFlight(int maxInFlight) {
+    mMaxInFlight = Math.max(1, maxInFlight);
+  }
+
+  public synchronized void setPolicy(int policy) {
+    mPolicy = policy;
+  }
+
+  public synchronized int getPolicy() {
+    return mPolicy;
+  }
+
+  public static int parsePolicy(String policy) {
+    if ("reject".equals(policy)) {
+      return POLICY_REJECT;
+    } else if ("coalesce".equals(policy)) {
+      return POLICY_COALESCE;
+    }
+    return POLICY_QUEUE;
+  }
+
+  /**
+   * @param waiting number of accepted requests not started yet
+   */
+  public synchronized boolean isFull(int waiting) {
+    return mInFlight + waiting >= mMaxInFlight;
+  }
+
+  public synchronized boolean tryAcquire() {
+    if (mInFlight >= mMaxInFlight) {
+      return false;
+    }
+    mInFlight++;
+    return true;
+  }
+
+  public synchronized void release() {
+    mInFlight = Math.max(0, mInFlight - 1);
+  }
+
+  public synchronized int getInFlight() {
+    return mInFlight;
+  }
+}
@@ -0,0 +1,115 @@
+package org.reactnative.camera.utils;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One takePictureAsync call, from its submission until a picture starts being produced for it.
+ *
+ * A request is either waiting, started or rejected. Only waiting requests can be cancelled or
+ * expire: once started, the promise belongs to the task resolving the picture.
+ */
+public class CaptureRequest {
+  private final Promise mPromise;
+  private final ReadableMap mOptions;
+  private final File mCacheDirectory;
+  private final long mSubmitTime;
+  private final long mDeadline;
+  // Requests sharing the picture of this one (captureOverflowPolicy 'coalesce')
+  private final List<CaptureRequest> mCoalesced = new ArrayList<>();
+  private boolean mStarted = false;
+  private boolean mRejected = false;
+
+  /**
+   * @param timeoutMillis time the request may wait before being rejected, 0 to wait forever.
+   */
+  public CaptureRequest(Promise promise, ReadableMap options, File cacheDirectory, long timeoutMillis) {
+    mPromise = promise;
+    mOptions = options;
+    mCacheDirectory = cacheDirectory;
+    mSubmitTime = System.nanoTime();
+    mDeadline = timeoutMillis > 0 ? mSubmitTime + timeoutMillis * 1000000L : 0;
+  }
+
+  public Promise getPromise() {
+    return mPromise;
+  }
+
+  public ReadableMap getOptions() {
+    return mOptions;
+  }
+
+  public File getCacheDirectory() {
+    return mCacheDirectory;
+  }
+
+  public long getSubmitTime() {
+    return mSubmitTime;
+  }
+
+  public long getDeadline() {
+    return mDeadline;
+  }
+
+  public boolean isExpired(long now) {
+    return mDeadline != 0 && now - mDeadline >= 0;
+  }
+
+  public synchronized boolean isWaiting() {
+    return !mStarted && !mRejected;
+  }
+
+  public synchronized void coalesce(CaptureRequest request) {
+    mCoalesced.add(request);
+  }
+
+  /**
+   * Marks this request and the requests coalesced with it as started.
+   *
+   * @return the started requests, this one first, or an empty list if this one was not waiting.
+   */
+  public synchronized List<CaptureRequest> start() {
+    List<CaptureRequest> started = new ArrayList<>();
+    if (!isWaiting()) {
+      return started;
+    }
+    mStarted = true;
+    started.add(this);
+    for (CaptureRequest request : mCoalesced) {
+      synchronized (request) {
+        if (request.isWaiting()) {
+          request.mStarted = true;
+          started.add(request);
+        }
+      }
+    }
+    return started;
+  }
+
+  public boolean cancel() {
+    return reject("E_CAPTURE_CANCELLED", "The picture request was cancelled");
+  }
+
+  public boolean expire() {
+    return reject("E_CAPTURE_TIMEOUT", "The picture request timed out");
+  }
+
+  /**
+   * Rejects this request and the requests coalesced with it, if still waiting.
+   */
+  private synchronized boolean reject(String code, String message) {
+    if (!isWaiting()) {
+      return false;
+    }
+    mRejected = true;
+    mPromise.reject(code, message);
+    for (CaptureRequest request : mCoalesced) {
+      request.reject(code, message);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,77 @@
+package org.reactnative.camera.utils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Waiting capture requests, started in submission order.
+ */
+public class CaptureRequestQueue {
+  private final ArrayDeque<CaptureRequest> mRequests = new ArrayDeque<>();
+
+  public synchronized void add(CaptureRequest request) {
+    mRequests.add(request);
+  }
+
+  /**
+   * Starts the oldest waiting request, skipping the ones rejected meanwhile.
+   *
+   * @return the started requests (see CaptureRequest.start()), or an empty list if none is waiting.
+   */
+  public synchronized List<CaptureRequest> start() {
+    CaptureRequest request;
+    while ((request = mRequests.poll()) != null) {
+      List<CaptureRequest> started = request.start();
+      if (!started.isEmpty()) {
+        return started;
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Starts the given request, whatever its position in the queue.
+   *
+   * @return the started requests (see CaptureRequest.start()), or an empty list if the request
+   * was rejected meanwhile.
+   */
+  public synchronized List<CaptureRequest> start(CaptureRequest request) {
+    mRequests.remove(request);
+    return request.start();
+  }
+
+  /**
+   * @return the most recently submitted request still waiting, or null.
+   */
+  public synchronized CaptureRequest peekLast() {
+    CaptureRequest request = mRequests.peekLast();
+    return request != null && request.isWaiting() ? request : null;
+  }
+
+  /**
+   * Rejects the request with E_CAPTURE_TIMEOUT if it is still waiting past its deadline.
+   */
+  public synchronized boolean expire(CaptureRequest request, long now) {
+    if (!request.isExpired(now) || !request.expire()) {
+      return false;
+    }
+    mRequests.remove(request);
+    return true;
+  }
+
+  public synchronized void cancelAll() {
+    CaptureRequest request;
+    while ((request = mRequests.poll()) != null) {
+      request.cancel();
+    }
+  }
+
+  public synchronized int size() {
+    return mRequests.size();
+  }
+
+  public synchronized boolean isEmpty() {
+    return mRequests.isEmpty();
+  }
+}
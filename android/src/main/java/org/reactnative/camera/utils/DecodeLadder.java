@@ -0,0 +1,116 @@
+package org.reactnative.camera.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Decides which decode attempts, from cheapest to most thorough, are made on a frame.
+ *
+ * Every frame is decoded with the global histogram binarizer. The hybrid binarizer is tried
+ * every hybridInterval frames when the first pass failed. TRY_HARDER is only used after
+ * missThreshold frames in a row without result, or when the analyzer has spare budget: checked
+ * once the cheaper passes have run, no frame is waiting and the median TRY_HARDER pass fits in
+ * the time left before the next frame is expected.
+ * Frames are decoded one at a time, statistics may be read from any thread.
+ */
+public class DecodeLadder {
+  public static final int TIER_GLOBAL_HISTOGRAM = 0;
+  public static final int TIER_HYBRID = 1;
+  public static final int TIER_TRY_HARDER = 2;
+  public static final int TIER_COUNT = 3;
+
+  public static final int DEFAULT_HYBRID_INTERVAL = 3;
+  public static final int DEFAULT_MISS_THRESHOLD = 5;
+
+  private static final String[] TIER_NAMES = { "globalHistogram", "hybrid", "tryHarder" };
+
+  private final FrameMailbox mMailbox;
+  private volatile boolean mEnabled = false;
+  private volatile int mHybridInterval = DEFAULT_HYBRID_INTERVAL;
+  private volatile int mMissThreshold = DEFAULT_MISS_THRESHOLD;
+
+  private long mFrameCount = 0;
+  private int mConsecutiveMisses = 0;
+
+  private final LatencyHistogram[] mTierLatencies = new LatencyHistogram[TIER_COUNT];
+  private final AtomicLongArray mTierHits = new AtomicLongArray(TIER_COUNT);
+
+  /**
+   * @param mailbox the analyzer's mailbox, telling whether a frame is waiting
+   */
+  public DecodeLadder(FrameMailbox mailbox) {
+    mMailbox = mailbox;
+    for (int i = 0; i < TIER_COUNT; i++) {
+      mTierLatencies[i] = new LatencyHistogram();
+    }
+  }
+
+  public void configure(boolean enabled, int hybridInterval, int missThreshold) {
+    mHybridInterval = Math.max(1, hybridInterval);
+    mMissThreshold = Math.max(1, missThreshold);
+    mEnabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return mEnabled;
+  }
+
+  public void startFrame() {
+    mFrameCount++;
+  }
+
+  /**
+   * Called right before the tier would run, so that the time spent on the cheaper tiers counts.
+   */
+  public boolean shouldTry(int tier) {
+    switch (tier) {
+      case TIER_GLOBAL_HISTOGRAM:
+        return true;
+      case TIER_HYBRID:
+        return mFrameCount % mHybridInterval == 0;
+      default:
+        return mConsecutiveMisses >= mMissThreshold || hasSpareBudget();
+    }
+  }
+
+  private boolean hasSpareBudget() {
+    if (mMailbox.hasPendingFrame()) {
+      return false;
+    }
+    long cost = mTierLatencies[TIER_TRY_HARDER].getPercentile(0.5);
+    return cost < mMailbox.getNanosUntilNextFrame();
+  }
+
+  public void recordAttempt(int tier, long durationNanos, boolean found) {
+    mTierLatencies[tier].record(durationNanos);
+    if (found) {
+      mTierHits.incrementAndGet(tier);
+    }
+  }
+
+  public void endFrame(boolean found) {
+    mConsecutiveMisses = found ? 0 : mConsecutiveMisses + 1;
+  }
+
+  public void reset() {
+    for (int i = 0; i < TIER_COUNT; i++) {
+      mTierLatencies[i].reset();
+      mTierHits.set(i, 0);
+    }
+  }
+
+  /**
+   * @return for each tier, its latency statistics and number of hits.
+   */
+  public WritableMap toMap() {
+    WritableMap map = Arguments.createMap();
+    for (int i = 0; i < TIER_COUNT; i++) {
+      WritableMap tier = mTierLatencies[i].toMap();
+      tier.putDouble("hits", mTierHits.get(i));
+      map.putMap(TIER_NAMES[i], tier);
+    }
+    return map;
+  }
+}
@@ -0,0 +1,90 @@
+package org.reactnative.camera.utils;
+
+import android.graphics.RectF;
+import android.util.SparseArray;
+
+import com.google.android.gms.vision.face.Face;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers the faces last sent to JS by faceID, to send only the faces that appeared, moved or
+ * disappeared since.
+ *
+ * A face is updated when a side of its bounds moved by more than threshold view points since it
+ * was last sent. Detection results are handed in order, on the UI thread.
+ */
+public class FaceDeltaTracker {
+  public static final float DEFAULT_THRESHOLD = 4;
+
+  private volatile float mThreshold = DEFAULT_THRESHOLD;
+  // Bounds last sent, in view points
+  private final SparseArray<RectF> mSentBounds = new SparseArray<>();
+
+  public void setThreshold(float threshold) {
+    mThreshold = Math.max(0, threshold);
+  }
+
+  /**
+   * @param scaleX view points per frame pixel, horizontally
+   * @param scaleY view points per frame pixel, vertically
+   * @return the changes to send, or null if no face changed enough.
+   */
+  public Delta update(SparseArray<Face> faces, double scaleX, double scaleY) {
+    List<Face> added = new ArrayList<>();
+    List<Face> updated = new ArrayList<>();
+    List<Integer> removed = new ArrayList<>();
+    float threshold = mThreshold;
+
+    for (int i = 0; i < faces.size(); i++) {
+      Face face = faces.valueAt(i);
+      float left = (float) (face.getPosition().x * scaleX);
+      float top = (float) (face.getPosition().y * scaleY);
+      RectF bounds = new RectF(left, top, left + (float) (face.getWidth() * scaleX), top + (float) (face.getHeight() * scaleY));
+      RectF sentBounds = mSentBounds.get(face.getId());
+      if (sentBounds == null) {
+        added.add(face);
+        mSentBounds.put(face.getId(), bounds);
+      } else if (Math.abs(bounds.left - sentBounds.left) > threshold
+          || Math.abs(bounds.top - sentBounds.top) > threshold
+          || Math.abs(bounds.right - sentBounds.right) > threshold
+          || Math.abs(bounds.bottom - sentBounds.bottom) > threshold) {
+        updated.add(face);
+        mSentBounds.put(face.getId(), bounds);
+      }
+    }
+
+    for (int i = mSentBounds.size() - 1; i >= 0; i--) {
+      int faceId = mSentBounds.keyAt(i);
+      if (faces.get(faceId) == null) {
+        removed.add(faceId);
+        mSentBounds.removeAt(i);
+      }
+    }
+
+    if (added.isEmpty() && updated.isEmpty() && removed.isEmpty()) {
+      return null;
+    }
+    return new Delta(added, updated, removed);
+  }
+
+  /**
+   * Forgets the faces sent, the next faces detected are all sent as added.
+   */
+  public void reset() {
+    mSentBounds.clear();
+  }
+
+  public static class Delta {
+    public final List<Face> added;
+    public final List<Face> updated;
+    public final List<Integer> removed;
+
+    Delta(List<Face> added, List<Face> updated, List<Integer> removed) {
+      this.added = added;
+      this.updated = updated;
+      this.removed = removed;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package org.reactnative.camera.utils;
+
+/**
+ * Single-slot mailbox handing preview frames to one analyzer.
+ *
+ * While the analyzer is busy only the most recent frame is kept; frames it replaces are counted
+ * as dropped. When the analyzer completes it picks the kept frame up immediately instead of
+ * waiting for the camera to deliver the next one. The interval between posted frames is tracked,
+ * so that the analyzer can tell how long it has until the next one.
+ */
+public class FrameMailbox {
+  private PreviewFrame mPendingFrame;
+  private boolean mBusy = false;
+  private long mDroppedCount = 0;
+  private long mLastPostNanos = 0;
+  // Moving average of the interval between posted frames, 0 until two frames were posted
+  private long mPostIntervalNanos = 0;
+
+  /**
+   * @return the frame itself if the analyzer was idle and should start processing it now,
+   * or null if the analyzer is busy and the frame has been left in the mailbox.
+   */
+  public synchronized PreviewFrame post(PreviewFrame frame) {
+    long now = System.nanoTime();
+    if (mLastPostNanos != 0) {
+      long interval = now - mLastPostNanos;
+      mPostIntervalNanos = mPostIntervalNanos == 0 ? interval : (mPostIntervalNanos * 7 + interval) / 8;
+    }
+    mLastPostNanos = now;
+    if (!mBusy) {
+      mBusy = true;
+      return frame;
+    }
+    if (mPendingFrame != null) {
+      mDroppedCount++;
+    }
+    mPendingFrame = frame;
+    return null;
+  }
+
+  /**
+   * Called by the analyzer once it is done with its current frame.
+   *
+   * @return the next frame to process, or null if there is none and the analyzer is now idle.
+   */
+  public synchronized PreviewFrame complete() {
+    PreviewFrame nextFrame = mPendingFrame;
+    mPendingFrame = null;
+    mBusy = nextFrame != null;
+    return nextFrame;
+  }
+
+  /**
+   * Drops the pending frame, if any. A frame being processed is not affected.
+   */
+  public synchronized void clear() {
+    if (mPendingFrame != null) {
+      mDroppedCount++;
+      mPendingFrame = null;
+    }
+  }
+
+  public synchronized boolean hasPendingFrame() {
+    return mPendingFrame != null;
+  }
+
+  /**
+   * @return the time left until the next frame is expected, 0 if it is overdue, or
+   * Long.MAX_VALUE while the frame interval is unknown.
+   */
+  public synchronized long getNanosUntilNextFrame() {
+    if (mPostIntervalNanos == 0) {
+      return Long.MAX_VALUE;
+    }
+    return Math.max(0, mLastPostNanos + mPostIntervalNanos - System.nanoTime());
+  }
+
+  public synchronized boolean isBusy() {
+    return mBusy;
+  }
+
+  public synchronized long getDroppedCount() {
+    return mDroppedCount;
+  }
+
+  public synchronized void resetDroppedCount() {
+    mDroppedCount = 0;
+  }
+}
@@ -0,0 +1,112 @@
+package org.reactnative.camera.utils;
+
+import android.util.Log;
+
+import org.reactnative.camera.FrameProcessor;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Frame processors attached to a camera view, each with its own frame rate cap,
+ * executor and latest-frame-wins mailbox.
+ *
+ * Every processor receives the same PreviewFrame instance: the preview data is never copied,
+ * whatever the number of processors.
+ */
+public class FrameProcessorRegistry {
+  private static final String TAG = "FrameProcessorRegistry";
+
+  private final CopyOnWriteArrayList<Registration> mRegistrations = new CopyOnWriteArrayList<>();
+
+  public void add(FrameProcessor processor, double targetFps, Executor executor) {
+    remove(processor);
+    mRegistrations.add(new Registration(processor, targetFps, executor));
+  }
+
+  public void remove(FrameProcessor processor) {
+    for (Registration registration : mRegistrations) {
+      if (registration.mProcessor == processor) {
+        registration.mRemoved = true;
+        mRegistrations.remove(registration);
+      }
+    }
+  }
+
+  public void clear() {
+    for (Registration registration : mRegistrations) {
+      registration.mRemoved = true;
+    }
+    mRegistrations.clear();
+  }
+
+  public boolean isEmpty() {
+    return mRegistrations.isEmpty();
+  }
+
+  public void dispatch(PreviewFrame frame) {
+    for (Registration registration : mRegistrations) {
+      registration.offer(frame);
+    }
+  }
+
+  private static class Registration implements Runnable {
+    private final FrameProcessor mProcessor;
+    private final Executor mExecutor;
+    private final FrameThrottle mThrottle = new FrameThrottle();
+    private final FrameMailbox mMailbox = new FrameMailbox();
+    // Frame the next run() processes, handed over through the executor
+    private PreviewFrame mNextFrame;
+    private volatile boolean mRemoved = false;
+
+    Registration(FrameProcessor processor, double targetFps, Executor executor) {
+      mProcessor = processor;
+      mExecutor = executor;
+      mThrottle.setTargetFps(targetFps);
+    }
+
+    void offer(PreviewFrame frame) {
+      if (mRemoved || !mThrottle.accept(frame.getTimestamp())) {
+        return;
+      }
+      PreviewFrame frameToProcess = mMailbox.post(frame);
+      if (frameToProcess != null) {
+        schedule(frameToProcess);
+      }
+    }
+
+    /**
+     * Processes one frame per run, and queues the next run for the frame kept meanwhile, so that
+     * registrations sharing an executor take turns instead of one keeping its thread.
+     */
+    @Override
+    public void run() {
+      PreviewFrame frame = mNextFrame;
+      mNextFrame = null;
+      if (!mRemoved) {
+        try {
+          mProcessor.onFrame(frame.getData(), frame.getWidth(), frame.getHeight(), frame.getRotation());
+        } catch (RuntimeException e) {
+          Log.e(TAG, "Frame processor failed", e);
+        }
+      }
+      PreviewFrame nextFrame = mMailbox.complete();
+      if (nextFrame != null) {
+        schedule(nextFrame);
+      }
+    }
+
+    private void schedule(PreviewFrame frame) {
+      mNextFrame = frame;
+      try {
+        mExecutor.execute(this);
+      } catch (RejectedExecutionException e) {
+        Log.w(TAG, "Frame processor executor rejected a frame", e);
+        mNextFrame = null;
+        mMailbox.clear();
+        mMailbox.complete();
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package org.reactnative.camera.utils;
+
+/**
+ * Caps the rate of frames accepted by an analyzer, based on frame timestamps.
+ *
+ * Accepted frames are spaced by the minimum interval on average: a frame arriving a little late
+ * does not push the following deadlines back, so a 10 fps cap on a 30 fps preview really yields
+ * 10 fps and not 7.5.
+ */
+public class FrameThrottle {
+  private long mMinIntervalNanos = 0;
+  private long mNextTimestamp = 0;
+  private boolean mHasAcceptedFrame = false;
+  private long mSkippedCount = 0;
+
+  public synchronized void setMinInterval(long minIntervalMillis) {
+    mMinIntervalNanos = Math.max(0, minIntervalMillis) * 1000000L;
+    mHasAcceptedFrame = false;
+  }
+
+  public synchronized void setTargetFps(double targetFps) {
+    mMinIntervalNanos = targetFps > 0 ? (long) (1E9 / targetFps) : 0;
+    mHasAcceptedFrame = false;
+  }
+
+  public synchronized long getMinInterval() {
+    return mMinIntervalNanos / 1000000L;
+  }
+
+  /**
+   * @param timestamp frame timestamp, in System.nanoTime() units
+   * @return whether the frame should be analyzed
+   */
+  public synchronized boolean accept(long timestamp) {
+    if (mMinIntervalNanos <= 0) {
+      return true;
+    }
+    if (mHasAcceptedFrame && timestamp < mNextTimestamp) {
+      mSkippedCount++;
+      return false;
+    }
+    if (mHasAcceptedFrame && timestamp - mNextTimestamp < mMinIntervalNanos) {
+      mNextTimestamp += mMinIntervalNanos;
+    } else {
+      mNextTimestamp = timestamp + mMinIntervalNanos;
+    }
+    mHasAcceptedFrame = true;
+    return true;
+  }
+
+  public synchronized long getSkippedCount() {
+    return mSkippedCount;
+  }
+
+  public synchronized void resetSkippedCount() {
+    mSkippedCount = 0;
+  }
+}
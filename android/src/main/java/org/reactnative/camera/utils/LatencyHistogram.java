@@ -0,0 +1,87 @@
+package org.reactnative.camera.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Fixed-size latency histogram with geometrically growing buckets (10 µs up to about 20 s,
+ * 20% apart), so that recording never allocates and percentiles are accurate to one bucket.
+ */
+public class LatencyHistogram {
+  private static final double MIN_NANOS = 10000;
+  private static final double GROWTH = 1.2;
+  private static final double LOG_GROWTH = Math.log(GROWTH);
+  private static final int BUCKET_COUNT = 80;
+
+  private final long[] mBuckets = new long[BUCKET_COUNT];
+  private long mCount = 0;
+  private long mTotalNanos = 0;
+  private long mMaxNanos = 0;
+
+  public synchronized void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    mBuckets[bucketIndex(nanos)]++;
+    mCount++;
+    mTotalNanos += nanos;
+    if (nanos > mMaxNanos) {
+      mMaxNanos = nanos;
+    }
+  }
+
+  public synchronized long getCount() {
+    return mCount;
+  }
+
+  /**
+   * @param quantile between 0 and 1
+   * @return the upper bound of the bucket holding the quantile, in nanoseconds
+   */
+  public synchronized long getPercentile(double quantile) {
+    if (mCount == 0) {
+      return 0;
+    }
+    long target = (long) Math.ceil(quantile * mCount);
+    long cumulated = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulated += mBuckets[i];
+      if (cumulated >= Math.max(1, target)) {
+        return Math.min(bucketUpperBound(i), mMaxNanos);
+      }
+    }
+    return mMaxNanos;
+  }
+
+  public synchronized void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      mBuckets[i] = 0;
+    }
+    mCount = 0;
+    mTotalNanos = 0;
+    mMaxNanos = 0;
+  }
+
+  public synchronized WritableMap toMap() {
+    WritableMap map = Arguments.createMap();
+    map.putDouble("count", mCount);
+    map.putDouble("mean", mCount == 0 ? 0 : mTotalNanos / 1E6 / mCount);
+    map.putDouble("p50", getPercentile(0.5) / 1E6);
+    map.putDouble("p95", getPercentile(0.95) / 1E6);
+    map.putDouble("p99", getPercentile(0.99) / 1E6);
+    map.putDouble("max", mMaxNanos / 1E6);
+    return map;
+  }
+
+  private static int bucketIndex(long nanos) {
+    if (nanos <= MIN_NANOS) {
+      return 0;
+    }
+    int index = 1 + (int) (Math.log(nanos / MIN_NANOS) / LOG_GROWTH);
+    return Math.min(index, BUCKET_COUNT - 1);
+  }
+
+  private static long bucketUpperBound(int index) {
+    return (long) (MIN_NANOS * Math.pow(GROWTH, index));
+  }
+}
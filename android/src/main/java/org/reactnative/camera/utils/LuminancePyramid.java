@@ -0,0 +1,63 @@
+package org.reactnative.camera.utils;
+
+import android.graphics.Rect;
+
+import com.google.zxing.PlanarYUVLuminanceSource;
+
+/**
+ * Box-downsampled luminance of preview frames, decoded before the full resolution luminance.
+ *
+ * The downsampled plane is written into a buffer reused from frame to frame, so building a level
+ * does not allocate once the frame size is stable. A pyramid is used by one task at a time.
+ */
+public class LuminancePyramid {
+  private volatile int mFactor = 1;
+  private byte[] mBuffer = new byte[0];
+
+  /**
+   * @param factor 2 or 4 to decode a downsampled frame first, 1 to decode the full frame only.
+   */
+  public void setFactor(int factor) {
+    mFactor = factor >= 4 ? 4 : factor >= 2 ? 2 : 1;
+  }
+
+  public int getFactor() {
+    return mFactor;
+  }
+
+  /**
+   * Averages each factor x factor block of the region's luma into the reused buffer.
+   *
+   * @return the downsampled luminance, or null if the region is too small to downsample.
+   */
+  public PlanarYUVLuminanceSource downsample(byte[] data, int dataWidth, Rect region, int factor) {
+    int width = region.width() / factor;
+    int height = region.height() / factor;
+    if (width < 1 || height < 1) {
+      return null;
+    }
+    if (mBuffer.length < width * height) {
+      mBuffer = new byte[width * height];
+    }
+
+    int shift = factor == 4 ? 4 : 2;
+    for (int y = 0; y < height; y++) {
+      int rowOffset = (region.top + y * factor) * dataWidth + region.left;
+      int outOffset = y * width;
+      for (int x = 0; x < width; x++) {
+        int blockOffset = rowOffset + x * factor;
+        int sum = 0;
+        for (int dy = 0; dy < factor; dy++) {
+          int offset = blockOffset + dy * dataWidth;
+          for (int dx = 0; dx < factor; dx++) {
+            sum += data[offset + dx] & 0xff;
+          }
+        }
+        mBuffer[outOffset + x] = (byte) (sum >> shift);
+      }
+    }
+
+    // Only the first width * height bytes of the buffer are read
+    return new PlanarYUVLuminanceSource(mBuffer, width, height, 0, 0, width, height, false);
+  }
+}
@@ -0,0 +1,69 @@
+package org.reactnative.camera.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame counters and per-stage latency histograms of one camera view's frame pipeline.
+ */
+public class PipelineStats {
+  // Time from a frame's arrival to the start of its analysis
+  public static final int STAGE_FRAME_DELIVERY = 0;
+  public static final int STAGE_BAR_CODE_DECODE = 1;
+  public static final int STAGE_FACE_DETECTION = 2;
+  // Time from an analysis result to its event being handed to the event dispatcher
+  public static final int STAGE_EVENT_DISPATCH = 3;
+  public static final int STAGE_CAPTURE_RESOLVE = 4;
+  // Time from a takePictureAsync call to the start of its capture
+  public static final int STAGE_CAPTURE_QUEUE = 5;
+
+  private static final String[] STAGE_NAMES = {
+      "frameDelivery", "barCodeDecode", "faceDetection", "eventDispatch", "captureResolve", "captureQueue"
+  };
+
+  private final LatencyHistogram[] mStages = new LatencyHistogram[STAGE_NAMES.length];
+  private final AtomicLong mFramesReceived = new AtomicLong();
+
+  public PipelineStats() {
+    for (int i = 0; i < mStages.length; i++) {
+      mStages[i] = new LatencyHistogram();
+    }
+  }
+
+  public void recordFrameReceived() {
+    mFramesReceived.incrementAndGet();
+  }
+
+  public void recordStage(int stage, long durationNanos) {
+    mStages[stage].record(durationNanos);
+  }
+
+  public long getFramesReceived() {
+    return mFramesReceived.get();
+  }
+
+  public LatencyHistogram getStage(int stage) {
+    return mStages[stage];
+  }
+
+  public void reset() {
+    mFramesReceived.set(0);
+    for (LatencyHistogram stage : mStages) {
+      stage.reset();
+    }
+  }
+
+  public WritableMap toMap() {
+    WritableMap map = Arguments.createMap();
+    map.putDouble("framesReceived", mFramesReceived.get());
+
+    WritableMap stages = Arguments.createMap();
+    for (int i = 0; i < mStages.length; i++) {
+      stages.putMap(STAGE_NAMES[i], mStages[i].toMap());
+    }
+    map.putMap("stages", stages);
+    return map;
+  }
+}
@@ -0,0 +1,46 @@
+package org.reactnative.camera.utils;
+
+/**
+ * A preview frame as delivered by the camera: NV21 data, its dimensions and the rotation
+ * (already corrected for the camera facing) needed to display it upright.
+ *
+ * The data array is shared between every consumer of the frame and must not be modified.
+ */
+public class PreviewFrame {
+  private final byte[] mData;
+  private final int mWidth;
+  private final int mHeight;
+  private final int mRotation;
+  private final long mTimestamp;
+
+  public PreviewFrame(byte[] data, int width, int height, int rotation, long timestamp) {
+    mData = data;
+    mWidth = width;
+    mHeight = height;
+    mRotation = rotation;
+    mTimestamp = timestamp;
+  }
+
+  public byte[] getData() {
+    return mData;
+  }
+
+  public int getWidth() {
+    return mWidth;
+  }
+
+  public int getHeight() {
+    return mHeight;
+  }
+
+  public int getRotation() {
+    return mRotation;
+  }
+
+  /**
+   * Arrival time of the frame, in System.nanoTime() units.
+   */
+  public long getTimestamp() {
+    return mTimestamp;
+  }
+}
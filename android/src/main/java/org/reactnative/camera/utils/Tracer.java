@@ -0,0 +1,133 @@
+package org.reactnative.camera.utils;
+
+import android.os.Build;
+import android.os.Process;
+import android.os.Trace;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Low-overhead tracing of the capture pipeline.
+ *
+ * When enabled, each section is written as an android.os.Trace section (visible in systrace)
+ * and its timing is recorded into a fixed-size ring buffer that JS can dump on demand.
+ * When disabled, begin() and end() only read a volatile flag: no allocation, no logging.
+ *
+ * Usage:
+ *   long traceStart = Tracer.begin(Tracer.RESOLVE_COMPRESS);
+ *   try {
+ *     ...
+ *   } finally {
+ *     Tracer.end(Tracer.RESOLVE_COMPRESS, traceStart);
+ *   }
+ *
+ * Sections must be ended in a finally block: a section left open on a pooled thread would
+ * nest every later section of that thread under it in systrace.
+ */
+public class Tracer {
+  public static final int CAPTURE_YUV_TO_RGB = 0;
+  public static final int CAPTURE_ROTATE = 1;
+  public static final int RESOLVE_DECODE = 2;
+  public static final int RESOLVE_READ_EXIF = 3;
+  public static final int RESOLVE_ROTATE = 4;
+  public static final int RESOLVE_MIRROR = 5;
+  public static final int RESOLVE_RESIZE = 6;
+  public static final int RESOLVE_WRITE_EXIF = 7;
+  public static final int RESOLVE_COMPRESS = 8;
+  public static final int RESOLVE_WRITE_FILE = 9;
+  public static final int RESOLVE_BASE64 = 10;
+  public static final int BITMAP_ROTATE_READ_PIXELS = 11;
+  public static final int BITMAP_ROTATE_RUN_SCRIPT = 12;
+  public static final int BITMAP_ROTATE_WRITE_PIXELS = 13;
+
+  private static final String[] SECTION_NAMES = {
+      "captureYuvToRgb", "captureRotate",
+      "resolveDecode", "resolveReadExif", "resolveRotate", "resolveMirror", "resolveResize",
+      "resolveWriteExif", "resolveCompress", "resolveWriteFile", "resolveBase64",
+      "bitmapRotateReadPixels", "bitmapRotateRunScript", "bitmapRotateWritePixels"
+  };
+
+  private static final int CAPACITY = 512;
+  private static final boolean TRACE_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+  private static volatile boolean sEnabled = false;
+
+  private static final int[] sSections = new int[CAPACITY];
+  private static final int[] sThreadIds = new int[CAPACITY];
+  private static final long[] sStarts = new long[CAPACITY];
+  private static final long[] sDurations = new long[CAPACITY];
+  private static int sNextIndex = 0;
+  private static int sSize = 0;
+
+  public static boolean isEnabled() {
+    return sEnabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    sEnabled = enabled;
+  }
+
+  /**
+   * @return the start time to pass to end(), or 0 if tracing is disabled.
+   */
+  public static long begin(int section) {
+    if (!sEnabled) {
+      return 0;
+    }
+    if (TRACE_SUPPORTED) {
+      Trace.beginSection(SECTION_NAMES[section]);
+    }
+    return System.nanoTime();
+  }
+
+  public static void end(int section, long start) {
+    // Checking the start time rather than the flag keeps systrace sections balanced
+    // if tracing is toggled while a section is open.
+    if (start == 0) {
+      return;
+    }
+    long duration = System.nanoTime() - start;
+    if (TRACE_SUPPORTED) {
+      Trace.endSection();
+    }
+    record(section, start, duration);
+  }
+
+  private static synchronized void record(int section, long start, long duration) {
+    sSections[sNextIndex] = section;
+    sThreadIds[sNextIndex] = Process.myTid();
+    sStarts[sNextIndex] = start;
+    sDurations[sNextIndex] = duration;
+    sNextIndex = (sNextIndex + 1) % CAPACITY;
+    sSize = Math.min(sSize + 1, CAPACITY);
+  }
+
+  /**
+   * @param clear whether to drop the returned sections, atomically with reading them
+   * @return the recorded sections, oldest first, with start times and durations in milliseconds.
+   */
+  public static synchronized WritableArray dump(boolean clear) {
+    WritableArray entries = Arguments.createArray();
+    int first = (sNextIndex - sSize + CAPACITY) % CAPACITY;
+    for (int i = 0; i < sSize; i++) {
+      int index = (first + i) % CAPACITY;
+      WritableMap entry = Arguments.createMap();
+      entry.putString("section", SECTION_NAMES[sSections[index]]);
+      entry.putInt("threadId", sThreadIds[index]);
+      entry.putDouble("start", sStarts[index] / 1E6);
+      entry.putDouble("duration", sDurations[index] / 1E6);
+      entries.pushMap(entry);
+    }
+    if (clear) {
+      clear();
+    }
+    return entries;
+  }
+
+  public static synchronized void clear() {
+    sNextIndex = 0;
+    sSize = 0;
+  }
+}
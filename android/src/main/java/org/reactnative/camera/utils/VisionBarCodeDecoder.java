@@ -0,0 +1,209 @@
+package org.reactnative.camera.utils;
+
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import com.google.android.gms.vision.Frame;
+import com.google.android.gms.vision.barcode.Barcode;
+import com.google.android.gms.vision.barcode.BarcodeDetector;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decodes frames with the Mobile Vision BarcodeDetector of Google Play services, and reports
+ * its codes as ZXing results so that the rest of the pipeline does not depend on the engine.
+ *
+ * The detector is created on first use and may not be operational until Play services has
+ * downloaded its native library, see isOperational().
+ */
+public class VisionBarCodeDecoder implements BarCodeDecoder {
+  public static final String NAME = "vision";
+
+  private static final Map<BarcodeFormat, Integer> VISION_FORMATS = new EnumMap<>(BarcodeFormat.class);
+  private static final SparseIntArray ZXING_FORMATS = new SparseIntArray();
+  static {
+    VISION_FORMATS.put(BarcodeFormat.AZTEC, Barcode.AZTEC);
+    VISION_FORMATS.put(BarcodeFormat.CODABAR, Barcode.CODABAR);
+    VISION_FORMATS.put(BarcodeFormat.CODE_39, Barcode.CODE_39);
+    VISION_FORMATS.put(BarcodeFormat.CODE_93, Barcode.CODE_93);
+    VISION_FORMATS.put(BarcodeFormat.CODE_128, Barcode.CODE_128);
+    VISION_FORMATS.put(BarcodeFormat.DATA_MATRIX, Barcode.DATA_MATRIX);
+    VISION_FORMATS.put(BarcodeFormat.EAN_8, Barcode.EAN_8);
+    VISION_FORMATS.put(BarcodeFormat.EAN_13, Barcode.EAN_13);
+    VISION_FORMATS.put(BarcodeFormat.ITF, Barcode.ITF);
+    VISION_FORMATS.put(BarcodeFormat.PDF_417, Barcode.PDF417);
+    VISION_FORMATS.put(BarcodeFormat.QR_CODE, Barcode.QR_CODE);
+    VISION_FORMATS.put(BarcodeFormat.UPC_A, Barcode.UPC_A);
+    VISION_FORMATS.put(BarcodeFormat.UPC_E, Barcode.UPC_E);
+    for (Map.Entry<BarcodeFormat, Integer> entry : VISION_FORMATS.entrySet()) {
+      ZXING_FORMATS.put(entry.getValue(), entry.getKey().ordinal());
+    }
+  }
+
+  private final Context mContext;
+  private final int mVisionFormats;
+  private BarcodeDetector mDetector = null;
+  // Set once released, so that a frame still being handed over does not build the detector again
+  private boolean mReleased = false;
+  // Copy of the searched region when it is not the whole frame, reused from frame to frame
+  private byte[] mRegionBuffer = new byte[0];
+
+  /**
+   * @param formats formats to read, all supported formats when empty.
+   */
+  public VisionBarCodeDecoder(Context context, Set<BarcodeFormat> formats) {
+    mContext = context;
+    mVisionFormats = toVisionFormats(formats);
+  }
+
+  /**
+   * @return whether Mobile Vision reads any of the formats. It does not read MaxiCode, RSS and
+   * UPC/EAN extensions.
+   */
+  public static boolean canRead(Set<BarcodeFormat> formats) {
+    if (formats.isEmpty()) {
+      return true;
+    }
+    for (BarcodeFormat format : formats) {
+      if (VISION_FORMATS.containsKey(format)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized boolean isOperational() {
+    BarcodeDetector detector = getDetector();
+    return detector != null && detector.isOperational();
+  }
+
+  /**
+   * Synchronized with release(), which may be called from the UI thread while a frame is decoded.
+   */
+  @Override
+  public synchronized Result[] decode(byte[] data, int width, int height, Rect region, boolean multiple) {
+    BarcodeDetector detector = getDetector();
+    if (detector == null || !detector.isOperational()) {
+      return null;
+    }
+
+    // NV21 planes are subsampled by two, the region has to start and end on even pixels
+    int left = region.left & ~1;
+    int top = region.top & ~1;
+    int regionWidth = (region.right - left) & ~1;
+    int regionHeight = (region.bottom - top) & ~1;
+    if (regionWidth < 2 || regionHeight < 2) {
+      return null;
+    }
+
+    ByteBuffer buffer;
+    if (left == 0 && top == 0 && regionWidth == width && regionHeight == height) {
+      buffer = ByteBuffer.wrap(data);
+    } else {
+      buffer = ByteBuffer.wrap(cropLuminance(data, width, left, top, regionWidth, regionHeight));
+    }
+    Frame frame = new Frame.Builder()
+        .setImageData(buffer, regionWidth, regionHeight, ImageFormat.NV21)
+        .build();
+
+    SparseArray<Barcode> barcodes = detector.detect(frame);
+    List<Result> results = new ArrayList<>(barcodes.size());
+    long timestamp = System.currentTimeMillis();
+    for (int i = 0; i < barcodes.size(); i++) {
+      Barcode barcode = barcodes.valueAt(i);
+      int format = ZXING_FORMATS.get(barcode.format, -1);
+      if (format == -1) {
+        continue;
+      }
+      results.add(new Result(
+          barcode.rawValue,
+          null,
+          toFramePoints(barcode.cornerPoints, left, top),
+          BarcodeFormat.values()[format],
+          timestamp
+      ));
+      if (!multiple) {
+        break;
+      }
+    }
+    return results.isEmpty() ? null : results.toArray(new Result[results.size()]);
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public synchronized void release() {
+    mReleased = true;
+    if (mDetector != null) {
+      mDetector.release();
+      mDetector = null;
+    }
+  }
+
+  /**
+   * @return the detector, or null once released.
+   */
+  private BarcodeDetector getDetector() {
+    if (mDetector == null && !mReleased) {
+      mDetector = new BarcodeDetector.Builder(mContext).setBarcodeFormats(mVisionFormats).build();
+    }
+    return mDetector;
+  }
+
+  /**
+   * Copies the luminance of the region into a grayscale NV21 image.
+   */
+  private byte[] cropLuminance(byte[] data, int width, int left, int top, int regionWidth, int regionHeight) {
+    int lumaSize = regionWidth * regionHeight;
+    int size = lumaSize + lumaSize / 2;
+    if (mRegionBuffer.length != size) {
+      mRegionBuffer = new byte[size];
+      Arrays.fill(mRegionBuffer, lumaSize, size, (byte) 128);
+    }
+    for (int y = 0; y < regionHeight; y++) {
+      System.arraycopy(data, (top + y) * width + left, mRegionBuffer, y * regionWidth, regionWidth);
+    }
+    return mRegionBuffer;
+  }
+
+  private static ResultPoint[] toFramePoints(Point[] cornerPoints, int left, int top) {
+    if (cornerPoints == null) {
+      return null;
+    }
+    ResultPoint[] points = new ResultPoint[cornerPoints.length];
+    for (int i = 0; i < cornerPoints.length; i++) {
+      points[i] = new ResultPoint(cornerPoints[i].x + left, cornerPoints[i].y + top);
+    }
+    return points;
+  }
+
+  private static int toVisionFormats(Set<BarcodeFormat> formats) {
+    if (formats.isEmpty()) {
+      return Barcode.ALL_FORMATS;
+    }
+    int visionFormats = 0;
+    for (BarcodeFormat format : formats) {
+      Integer visionFormat = VISION_FORMATS.get(format);
+      if (visionFormat != null) {
+        visionFormats |= visionFormat;
+      }
+    }
+    return visionFormats;
+  }
+}
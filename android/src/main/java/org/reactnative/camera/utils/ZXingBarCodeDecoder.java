@@ -0,0 +1,188 @@
+package org.reactnative.camera.utils;
+
+import android.graphics.Rect;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Reader;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+
+import java.util.Map;
+
+/**
+ * Decodes frames with ZXing, through the view's adaptive reader, downsampling pyramid and decode ladder.
+ */
+public class ZXingBarCodeDecoder implements BarCodeDecoder {
+  public static final String NAME = "zxing";
+
+  private final AdaptiveBarCodeReader mBarCodeReader;
+  private final LuminancePyramid mPyramid;
+  private final DecodeLadder mLadder;
+
+  public ZXingBarCodeDecoder(AdaptiveBarCodeReader barCodeReader, LuminancePyramid pyramid, DecodeLadder ladder) {
+    mBarCodeReader = barCodeReader;
+    mPyramid = pyramid;
+    mLadder = ladder;
+  }
+
+  @Override
+  public Result[] decode(byte[] data, int width, int height, Rect region, boolean multiple) {
+    mBarCodeReader.startFrame();
+    try {
+      Result[] result = decodeDownsampled(data, width, region, multiple);
+      if (result != null) {
+        return result;
+      }
+      PlanarYUVLuminanceSource source = generateLuminanceSourceFromImageData(data, width, height, region);
+      if (mLadder != null && mLadder.isEnabled()) {
+        return toFrameCoordinates(decodeWithLadder(source, multiple), region, 1);
+      }
+      return toFrameCoordinates(decode(new BinaryBitmap(new HybridBinarizer(source)), multiple, false), region, 1);
+    } catch (NotFoundException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public void release() {
+    // ZXing holds no native resources, the reader and pyramid belong to the view.
+  }
+
+  /**
+   * Most codes are large in the frame, so a downsampled frame is tried first when enabled.
+   *
+   * @return the results, or null to fall back to the full resolution frame.
+   */
+  private Result[] decodeDownsampled(byte[] data, int width, Rect region, boolean multiple) {
+    int factor = mPyramid != null ? mPyramid.getFactor() : 1;
+    if (factor == 1) {
+      return null;
+    }
+    PlanarYUVLuminanceSource source = mPyramid.downsample(data, width, region, factor);
+    if (source == null) {
+      return null;
+    }
+    try {
+      Result[] result = decode(new BinaryBitmap(new HybridBinarizer(source)), multiple, false);
+      return toFrameCoordinates(result, region, factor);
+    } catch (NotFoundException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Tries the ladder's attempts from the cheapest one until a code is found.
+   */
+  private Result[] decodeWithLadder(PlanarYUVLuminanceSource source, boolean multiple) throws NotFoundException {
+    mLadder.startFrame();
+    Result[] result = null;
+    for (int tier = 0; tier < DecodeLadder.TIER_COUNT && result == null; tier++) {
+      if (!mLadder.shouldTry(tier)) {
+        continue;
+      }
+      long tierStart = System.nanoTime();
+      BinaryBitmap bitmap = new BinaryBitmap(tier == DecodeLadder.TIER_GLOBAL_HISTOGRAM
+          ? new GlobalHistogramBinarizer(source)
+          : new HybridBinarizer(source));
+      try {
+        result = decode(bitmap, multiple, tier == DecodeLadder.TIER_TRY_HARDER);
+      } catch (NotFoundException e) {
+        // Try the next tier
+      }
+      mLadder.recordAttempt(tier, System.nanoTime() - tierStart, result != null);
+    }
+    mLadder.endFrame(result != null);
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  /**
+   * @return the first code found, or every code found in multiple mode.
+   */
+  private Result[] decode(BinaryBitmap bitmap, boolean multiple, boolean tryHarder) throws NotFoundException {
+    if (multiple) {
+      return new GenericMultipleBarcodeReader(new ConfiguredReader(mBarCodeReader, tryHarder)).decodeMultiple(bitmap);
+    }
+    return new Result[] { mBarCodeReader.decodeWithState(bitmap, tryHarder) };
+  }
+
+  private PlanarYUVLuminanceSource generateLuminanceSourceFromImageData(byte[] imageData, int width, int height, Rect region) {
+    return new PlanarYUVLuminanceSource(
+        imageData, // byte[] yuvData
+        width, // int dataWidth
+        height, // int dataHeight
+        region.left, // int left
+        region.top, // int top
+        region.width(), // int width
+        region.height(), // int height
+        false // boolean reverseHorizontal
+    );
+  }
+
+  /**
+   * Result points of a decode are relative to the decoded region at its decoded scale,
+   * moves them to the full frame.
+   */
+  private static Result[] toFrameCoordinates(Result[] results, Rect region, int scale) {
+    for (int i = 0; i < results.length; i++) {
+      results[i] = toFrameCoordinates(results[i], region, scale);
+    }
+    return results;
+  }
+
+  private static Result toFrameCoordinates(Result result, Rect region, int scale) {
+    ResultPoint[] points = result.getResultPoints();
+    if (points == null || (region.left == 0 && region.top == 0 && scale == 1)) {
+      return result;
+    }
+    ResultPoint[] framePoints = new ResultPoint[points.length];
+    for (int i = 0; i < points.length; i++) {
+      framePoints[i] = points[i] == null ? null : new ResultPoint(points[i].getX() * scale + region.left, points[i].getY() * scale + region.top);
+    }
+    Result frameResult = new Result(result.getText(), result.getRawBytes(), framePoints, result.getBarcodeFormat(), result.getTimestamp());
+    frameResult.putAllMetadata(result.getResultMetadata());
+    return frameResult;
+  }
+
+  /**
+   * GenericMultipleBarcodeReader passes its own hints to the reader it wraps, which would make
+   * the reader forget the formats it was set up with. This reader keeps them.
+   */
+  private static class ConfiguredReader implements Reader {
+    private final AdaptiveBarCodeReader mReader;
+    private final boolean mTryHarder;
+
+    ConfiguredReader(AdaptiveBarCodeReader reader, boolean tryHarder) {
+      mReader = reader;
+      mTryHarder = tryHarder;
+    }
+
+    @Override
+    public Result decode(BinaryBitmap image) throws NotFoundException {
+      return mReader.decodeWithState(image, mTryHarder);
+    }
+
+    @Override
+    public Result decode(BinaryBitmap image, Map<DecodeHintType, ?> hints) throws NotFoundException {
+      return mReader.decodeWithState(image, mTryHarder);
+    }
+
+    @Override
+    public void reset() {
+      mReader.reset();
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package org.reactnative.facedetector;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.google.android.gms.vision.face.FaceDetector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Idle face detectors shared by every RNFaceDetector, so that a detector for frame dimensions and
+ * settings seen before is reused instead of built again, e.g. when the device rotates back or
+ * when file detection runs next to the preview.
+ *
+ * A detector is taken out of the pool while in use and handed back once its owner moves to other
+ * dimensions or settings. The least recently used idle detectors are released once the pool holds
+ * more than MAX_IDLE_DETECTORS of them or more than MAX_IDLE_BYTES of estimated native memory.
+ */
+public class FaceDetectorPool {
+  private static final int MAX_IDLE_DETECTORS = 4;
+  private static final long MAX_IDLE_BYTES = 16 * 1024 * 1024;
+  // Estimated native memory of a detector besides its frame sized buffers, mostly its models
+  private static final long DETECTOR_BASE_BYTES = 1024 * 1024;
+
+  // Least recently used first
+  private static final List<IdleDetector> sIdleDetectors = new ArrayList<>();
+  private static long sIdleBytes = 0;
+  private static long sBuilt = 0;
+  private static long sReused = 0;
+  private static long sEvicted = 0;
+
+  /**
+   * @return an idle detector built for the key, or null if there is none.
+   */
+  static FaceDetector acquire(String key) {
+    synchronized (sIdleDetectors) {
+      for (int i = sIdleDetectors.size() - 1; i >= 0; i--) {
+        IdleDetector idleDetector = sIdleDetectors.get(i);
+        if (idleDetector.key.equals(key)) {
+          sIdleDetectors.remove(i);
+          sIdleBytes -= idleDetector.bytes;
+          sReused++;
+          return idleDetector.detector;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Builds a detector, for when acquire() found none.
+   */
+  static FaceDetector build(FaceDetector.Builder builder) {
+    synchronized (sIdleDetectors) {
+      sBuilt++;
+    }
+    return builder.build();
+  }
+
+  /**
+   * Hands back a detector built for the key, for frames of width x height pixels, 0 x 0 if unknown.
+   */
+  static void release(String key, FaceDetector detector, int width, int height) {
+    List<FaceDetector> evicted = new ArrayList<>();
+    synchronized (sIdleDetectors) {
+      IdleDetector idleDetector = new IdleDetector(key, detector, estimateBytes(width, height));
+      sIdleDetectors.add(idleDetector);
+      sIdleBytes += idleDetector.bytes;
+      while (sIdleDetectors.size() > MAX_IDLE_DETECTORS || (sIdleBytes > MAX_IDLE_BYTES && !sIdleDetectors.isEmpty())) {
+        IdleDetector oldest = sIdleDetectors.remove(0);
+        sIdleBytes -= oldest.bytes;
+        evicted.add(oldest.detector);
+        sEvicted++;
+      }
+    }
+    // Releasing a native detector takes a while, do it outside of the lock
+    for (FaceDetector evictedDetector : evicted) {
+      evictedDetector.release();
+    }
+  }
+
+  /**
+   * Releases every idle detector, when the host activity is destroyed.
+   */
+  public static void clear() {
+    List<IdleDetector> idleDetectors;
+    synchronized (sIdleDetectors) {
+      idleDetectors = new ArrayList<>(sIdleDetectors);
+      sIdleDetectors.clear();
+      sIdleBytes = 0;
+    }
+    for (IdleDetector idleDetector : idleDetectors) {
+      idleDetector.detector.release();
+    }
+  }
+
+  /**
+   * @return `{ idle, idleBytes, built, reused, evicted }`, idleBytes being estimated.
+   */
+  public static WritableMap getStats() {
+    WritableMap map = Arguments.createMap();
+    synchronized (sIdleDetectors) {
+      map.putInt("idle", sIdleDetectors.size());
+      map.putDouble("idleBytes", sIdleBytes);
+      map.putDouble("built", sBuilt);
+      map.putDouble("reused", sReused);
+      map.putDouble("evicted", sEvicted);
+    }
+    return map;
+  }
+
+  public static void resetStats() {
+    synchronized (sIdleDetectors) {
+      sBuilt = 0;
+      sReused = 0;
+      sEvicted = 0;
+    }
+  }
+
+  /**
+   * The detector keeps frame sized buffers, estimated as one NV21 frame.
+   */
+  private static long estimateBytes(int width, int height) {
+    return DETECTOR_BASE_BYTES + (long) width * height * 3 / 2;
+  }
+
+  private static class IdleDetector {
+    final String key;
+    final FaceDetector detector;
+    final long bytes;
+
+    IdleDetector(String key, FaceDetector detector, long bytes) {
+      this.key = key;
+      this.detector = detector;
+      this.bytes = bytes;
+    }
+  }
+}
@@ -3,7 +3,9 @@ package org.reactnative.facedetector;
 import android.graphics.PointF;
 
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.google.android.gms.vision.face.Face;
 import com.google.android.gms.vision.face.Landmark;
@@ -17,6 +19,103 @@ public class FaceDetectorUtils {
       "rightEarPosition", "rightEarTipPosition", "rightEyePosition", "rightMouthPosition"
   };
 
+  // Values of a face in the compact format, followed by a bit mask of the landmarks found and
+  // the x and y of each requested landmark.
+  public static final String[] COMPACT_FIELDS = {
+    "faceID", "x", "y", "width", "height", "rollAngle", "yawAngle",
+      "smilingProbability", "leftEyeOpenProbability", "rightEyeOpenProbability", "landmarksFound"
+  };
+
+  /**
+   * @param names landmark names, e.g. "leftEyePosition"; unknown names are ignored
+   * @return the Mobile Vision landmark types, in the given order.
+   */
+  public static int[] landmarkTypesFromNames(ReadableArray names) {
+    int[] types = new int[names.size()];
+    int count = 0;
+    for (int i = 0; i < names.size(); i++) {
+      for (int type = 0; type < landmarkNames.length; type++) {
+        if (landmarkNames[type].equals(names.getString(i))) {
+          types[count++] = type;
+          break;
+        }
+      }
+    }
+    int[] knownTypes = new int[count];
+    System.arraycopy(types, 0, knownTypes, 0, count);
+    return knownTypes;
+  }
+
+  public static String landmarkName(int landmarkType) {
+    return landmarkNames[landmarkType];
+  }
+
+  /**
+   * @return the number of values of each face in the compact format.
+   */
+  public static int compactStride(int[] landmarkTypes) {
+    return COMPACT_FIELDS.length + 2 * landmarkTypes.length;
+  }
+
+  /**
+   * Appends the face to a compact face array, in view coordinates: scaled, and for the front
+   * camera mirrored, in a single pass over the face's values. Probabilities that were not
+   * computed are -1, and landmarks not found are 0, 0 with their bit of landmarksFound unset.
+   *
+   * @param scaleX view points per source pixel, horizontally
+   * @param scaleY view points per source pixel, vertically
+   * @param analysisScale source pixels per pixel of the frame the face was detected in
+   * @param sourceWidth width of the source, for mirroring
+   */
+  public static void appendCompactFace(WritableArray faces, Face face, int[] landmarkTypes, double scaleX, double scaleY,
+                                       int analysisScale, boolean mirrored, int sourceWidth) {
+    double faceScaleX = scaleX * analysisScale;
+    double faceScaleY = scaleY * analysisScale;
+    double width = face.getWidth() * faceScaleX;
+    double x = face.getPosition().x * faceScaleX;
+    double rollAngle = face.getEulerZ();
+    double yawAngle = face.getEulerY();
+    if (mirrored) {
+      x = sourceWidth * scaleX - x - width;
+    } else {
+      rollAngle = (-rollAngle + 360) % 360;
+      yawAngle = (-yawAngle + 360) % 360;
+    }
+
+    faces.pushInt(face.getId());
+    faces.pushDouble(x);
+    faces.pushDouble(face.getPosition().y * faceScaleY);
+    faces.pushDouble(width);
+    faces.pushDouble(face.getHeight() * faceScaleY);
+    faces.pushDouble(rollAngle);
+    faces.pushDouble(yawAngle);
+    faces.pushDouble(face.getIsSmilingProbability());
+    faces.pushDouble(face.getIsLeftEyeOpenProbability());
+    faces.pushDouble(face.getIsRightEyeOpenProbability());
+
+    int found = 0;
+    PointF[] positions = new PointF[landmarkTypes.length];
+    for (Landmark landmark : face.getLandmarks()) {
+      for (int i = 0; i < landmarkTypes.length; i++) {
+        if (landmarkTypes[i] == landmark.getType()) {
+          positions[i] = landmark.getPosition();
+          found |= 1 << i;
+        }
+      }
+    }
+    faces.pushInt(found);
+    for (PointF position : positions) {
+      if (position == null) {
+        faces.pushDouble(0);
+        faces.pushDouble(0);
+        continue;
+      }
+      double landmarkX = position.x * faceScaleX;
+      faces.pushDouble(mirrored ? sourceWidth * scaleX - landmarkX : landmarkX);
+      faces.pushDouble(position.y * faceScaleY);
+    }
+  }
+
   public static WritableMap serializeFace(Face face) {
     return serializeFace(face, 1, 1);
   }
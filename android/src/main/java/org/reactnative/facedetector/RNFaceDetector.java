@@ -17,6 +17,7 @@ public class RNFaceDetector {
   public static int FAST_MODE = FaceDetector.FAST_MODE;
 
   private FaceDetector mFaceDetector = null;
+  // Dimensions the detector is used with, null until its first frame
   private ImageDimensions mPreviousDimensions;
   private FaceDetector.Builder mBuilder = null;
 
@@ -24,9 +25,11 @@ public class RNFaceDetector {
   private int mLandmarkType = NO_LANDMARKS;
   private float mMinFaceSize = 0.15f;
   private int mMode = FAST_MODE;
+  private boolean mTrackingEnabled = true;
 
   public RNFaceDetector(Context context) {
-    mBuilder = new FaceDetector.Builder(context);
+    // Pooled detectors outlive the view or task that built them, they must not hold its Activity
+    mBuilder = new FaceDetector.Builder(context.getApplicationContext());
     mBuilder.setMinFaceSize(mMinFaceSize);
     mBuilder.setMode(mMode);
     mBuilder.setLandmarkType(mLandmarkType);
@@ -35,36 +38,45 @@ public class RNFaceDetector {
 
   // Public API
 
-  public boolean isOperational() {
+  public synchronized boolean isOperational() {
     if (mFaceDetector == null) {
-      createFaceDetector();
+      createFaceDetector(null);
     }
 
     return mFaceDetector.isOperational();
   }
 
-  public SparseArray<Face> detect(RNFrame frame) {
-    // If the frame has different dimensions, create another face detector.
+  /**
+   * Builds the detector, or takes it from the pool, and loads its native library so that the
+   * first detect() call does not pay for it.
+   *
+   * @return whether the detector is operational.
+   */
+  public boolean warmUp() {
+    return isOperational();
+  }
+
+  public synchronized SparseArray<Face> detect(RNFrame frame) {
+    // If the frame has different dimensions, use another face detector.
     // Otherwise we will get nasty "inconsistent image dimensions" error from detector
-    // and no face will be detected.
-    if (!frame.getDimensions().equals(mPreviousDimensions)) {
+    // and no face will be detected. A detector that has not seen a frame yet can take any.
+    if (mPreviousDimensions != null && !frame.getDimensions().equals(mPreviousDimensions)) {
       releaseFaceDetector();
     }
 
     if (mFaceDetector == null) {
-      createFaceDetector();
-      mPreviousDimensions = frame.getDimensions();
+      createFaceDetector(frame.getDimensions());
     }
+    mPreviousDimensions = frame.getDimensions();
 
     return mFaceDetector.detect(frame.getFrame());
   }
 
   public void setTracking(boolean trackingEnabled) {
-    release();
-    mBuilder.setTrackingEnabled(trackingEnabled);
+    setTrackingEnabled(trackingEnabled);
   }
 
-  public void setClassificationType(int classificationType) {
+  public synchronized void setClassificationType(int classificationType) {
     if (classificationType != mClassificationType) {
       release();
       mBuilder.setClassificationType(classificationType);
@@ -72,7 +84,7 @@ public class RNFaceDetector {
     }
   }
 
-  public void setLandmarkType(int landmarkType) {
+  public synchronized void setLandmarkType(int landmarkType) {
     if (landmarkType != mLandmarkType) {
       release();
       mBuilder.setLandmarkType(landmarkType);
@@ -80,7 +92,7 @@ public class RNFaceDetector {
     }
   }
 
-  public void setMode(int mode) {
+  public synchronized void setMode(int mode) {
     if (mode != mMode) {
       release();
       mBuilder.setMode(mode);
@@ -88,26 +100,54 @@ public class RNFaceDetector {
     }
   }
 
-  public void setTrackingEnabled(boolean tracking) {
-    release();
-    mBuilder.setTrackingEnabled(tracking);
+  public synchronized void setTrackingEnabled(boolean tracking) {
+    if (tracking != mTrackingEnabled) {
+      release();
+      mBuilder.setTrackingEnabled(tracking);
+      mTrackingEnabled = tracking;
+    }
   }
 
-  public void release() {
+  /**
+   * Hands the detector back to FaceDetectorPool, where it stays ready for the next frames of the
+   * same dimensions and settings.
+   */
+  public synchronized void release() {
     releaseFaceDetector();
-    mPreviousDimensions = null;
   }
 
   // Lifecycle methods
 
   private void releaseFaceDetector() {
     if (mFaceDetector != null) {
-      mFaceDetector.release();
+      if (mPreviousDimensions != null) {
+        FaceDetectorPool.release(poolKey(mPreviousDimensions), mFaceDetector,
+            mPreviousDimensions.getWidth(), mPreviousDimensions.getHeight());
+      } else {
+        FaceDetectorPool.release(poolKey(null), mFaceDetector, 0, 0);
+      }
       mFaceDetector = null;
     }
+    mPreviousDimensions = null;
+  }
+
+  private void createFaceDetector(ImageDimensions dimensions) {
+    mFaceDetector = FaceDetectorPool.acquire(poolKey(dimensions));
+    if (mFaceDetector == null && dimensions != null) {
+      // A detector that has not seen a frame yet fits any dimensions
+      mFaceDetector = FaceDetectorPool.acquire(poolKey(null));
+    }
+    if (mFaceDetector == null) {
+      mFaceDetector = FaceDetectorPool.build(mBuilder);
+    }
   }
 
-  private void createFaceDetector() {
-    mFaceDetector = mBuilder.build();
+  private String poolKey(ImageDimensions dimensions) {
+    String key = mMode + "/" + mLandmarkType + "/" + mClassificationType + "/" + mTrackingEnabled + "/" + mMinFaceSize;
+    if (dimensions == null) {
+      return key;
+    }
+    return key + "@" + dimensions.getWidth() + "x" + dimensions.getHeight() + "/" + dimensions.getRotation()
+        + "/" + dimensions.getFacing();
   }
 }
@@ -7,6 +7,7 @@ import org.reactnative.camera.utils.ImageDimensions;
 import com.google.android.gms.vision.Frame;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public class RNFrameFactory {
   public static RNFrame buildFrame(byte[] bitmapData, int width, int height, int rotation) {
@@ -34,6 +35,57 @@ public class RNFrameFactory {
     return new RNFrame(builder.build(), dimensions);
   }
 
+  /**
+   * @param resolution wanted length of the frame's shorter side, 0 for the full resolution
+   * @return the integer factor bringing the frame closest to the resolution without going below it.
+   */
+  public static int downsamplingFactor(int width, int height, int resolution) {
+    if (resolution <= 0) {
+      return 1;
+    }
+    return Math.max(1, Math.min(width, height) / resolution);
+  }
+
+  /**
+   * @return the size of the NV21 buffer needed by buildDownsampledFrame.
+   */
+  public static int downsampledBufferSize(int width, int height, int factor) {
+    int lumaSize = ((width / factor) & ~1) * ((height / factor) & ~1);
+    return lumaSize + lumaSize / 2;
+  }
+
+  /**
+   * Averages each factor x factor block of the frame's luma into buffer, which must hold
+   * downsampledBufferSize() bytes. Face detection only looks at luminance, so the chroma planes are
+   * filled with gray.
+   */
+  public static RNFrame buildDownsampledFrame(byte[] nv21Data, int width, int height, int rotation, int factor, byte[] buffer) {
+    // NV21 planes are subsampled by two, the downsampled frame needs even dimensions
+    int outWidth = (width / factor) & ~1;
+    int outHeight = (height / factor) & ~1;
+    int lumaSize = outWidth * outHeight;
+    int area = factor * factor;
+
+    for (int y = 0; y < outHeight; y++) {
+      int rowOffset = y * factor * width;
+      int outOffset = y * outWidth;
+      for (int x = 0; x < outWidth; x++) {
+        int blockOffset = rowOffset + x * factor;
+        int sum = 0;
+        for (int dy = 0; dy < factor; dy++) {
+          int offset = blockOffset + dy * width;
+          for (int dx = 0; dx < factor; dx++) {
+            sum += nv21Data[offset + dx] & 0xff;
+          }
+        }
+        buffer[outOffset + x] = (byte) (sum / area);
+      }
+    }
+    Arrays.fill(buffer, lumaSize, lumaSize + lumaSize / 2, (byte) 128);
+
+    return buildFrame(buffer, outWidth, outHeight, rotation);
+  }
+
   public static RNFrame buildFrame(Bitmap bitmap) {
     Frame.Builder builder = new Frame.Builder();
     builder.setBitmap(bitmap);
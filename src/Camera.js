@@ -1,7 +1,6 @@
 import React, { Component } from 'react';
 import PropTypes from 'prop-types';
 import {
-  DeviceEventEmitter, // android
   NativeAppEventEmitter, // ios
   NativeModules,
   Platform,
@@ -97,6 +96,7 @@ export default class Camera extends Component {
     keepAwake: PropTypes.bool,
     onBarCodeRead: PropTypes.func,
     barcodeScannerEnabled: PropTypes.bool,
+    barcodeDualOrientation: PropTypes.bool,
     cropToPreview: PropTypes.bool,
     clearWindowBackground: PropTypes.bool,
     onFocusChanged: PropTypes.func,
@@ -223,11 +223,12 @@ export default class Camera extends Component {
   _addOnBarCodeReadListener(props) {
     const { onBarCodeRead } = props || this.props;
     this._removeOnBarCodeReadListener();
-    if (onBarCodeRead) {
-      this.cameraBarCodeReadListener = Platform.select({
-        ios: NativeAppEventEmitter.addListener('CameraBarCodeRead', this._onBarCodeRead),
-        android: DeviceEventEmitter.addListener('CameraBarCodeReadAndroid', this._onBarCodeRead),
-      });
+    // On Android bar codes are delivered to the view itself, through onCameraBarCodeRead
+    if (onBarCodeRead && Platform.OS === 'ios') {
+      this.cameraBarCodeReadListener = NativeAppEventEmitter.addListener(
+        'CameraBarCodeRead',
+        this._onBarCodeRead,
+      );
     }
   }
   _addOnFocusChanged(props) {
@@ -279,7 +280,13 @@ export default class Camera extends Component {
     const nativeProps = convertNativeProps(this.props);
 
     if (this.state.isAuthorized) {
-      return <RCTCamera ref={this._setReference} {...nativeProps} />;
+      return (
+        <RCTCamera
+          ref={this._setReference}
+          {...nativeProps}
+          onCameraBarCodeRead={this.props.onBarCodeRead ? this._onCameraBarCodeRead : undefined}
+        />
+      );
     } else if (!this.state.isAuthorizationChecked) {
       return this.props.pendingAuthorizationView;
     } else {
@@ -293,6 +300,10 @@ export default class Camera extends Component {
     }
   };
 
+  _onCameraBarCodeRead = ({ nativeEvent }) => {
+    this._onBarCodeRead(nativeEvent);
+  };
+
   capture(options) {
     const props = convertNativeProps(this.props);
     options = {
@@ -393,6 +404,7 @@ const RCTCamera = requireNativeComponent('RCTCamera', Camera, {
     accessibilityLiveRegion: true,
     accessibilityComponentType: true,
     onLayout: true,
+    onCameraBarCodeRead: true,
   },
 });
 
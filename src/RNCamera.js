@@ -4,6 +4,7 @@ import PropTypes from 'prop-types';
 import { mapValues } from 'lodash';
 import {
   findNodeHandle,
+  DeviceEventEmitter,
   Platform,
   NativeModules,
   ViewPropTypes,
@@ -39,6 +40,35 @@ type RecordingOptions = {
   mute?: boolean,
 };
 
+type TaskExecutorOptions = {
+  threads?: number,
+  priority?: number,
+};
+
+type TaskExecutorsOptions = {
+  barCode?: TaskExecutorOptions,
+  faceDetection?: TaskExecutorOptions,
+  capture?: TaskExecutorOptions,
+  frameProcessor?: TaskExecutorOptions,
+};
+
+type FileBarCodeDecodingOptions = {
+  barCodeTypes?: Array<string>,
+  multiple?: boolean,
+  tryHarder?: boolean,
+  maxDimension?: number,
+};
+
+type FileBarCodeDecodingResult = {
+  index: number,
+  uri: string,
+  barCodes?: Array<{ data: string, type: string, points: Array<{ x: number, y: number }> }>,
+  image?: { width: number, height: number },
+  error?: string,
+};
+
+let nextFileBarCodeBatchId = 1;
+
 type EventCallbackArgumentsType = {
   nativeEvent: Object,
 };
@@ -51,14 +81,34 @@ type PropsType = ViewPropTypes & {
   type?: number | string,
   onCameraReady?: Function,
   onBarCodeRead?: Function,
+  onBarCodesRead?: Function,
   faceDetectionMode?: number,
   flashMode?: number | string,
   barCodeTypes?: Array<string>,
+  barCodeScanInterval?: number,
+  barCodeScanArea?: { x: number, y: number, width: number, height: number },
+  barCodeDownsampling?: 1 | 2 | 4,
+  adaptiveBarCodeFormats?: boolean,
+  barCodeDecodeLadder?: { hybridInterval?: number, missThreshold?: number },
+  barCodeTracking?: { padding?: number, maxMisses?: number },
+  barCodeDecoder?: 'zxing' | 'vision' | 'auto',
+  barCodeDebounce?: { window: number, maxEntries?: number, heartbeatInterval?: number },
+  faceDetectionInterval?: number,
+  faceDetectionResolution?: number,
+  maxInFlightCaptures?: number,
+  captureOverflowPolicy?: 'queue' | 'reject' | 'coalesce',
   whiteBalance?: number | string,
   faceDetectionLandmarks?: number,
   autoFocus?: string | boolean | number,
   faceDetectionClassifications?: number,
   onFacesDetected?: ({ faces: Array<TrackedFaceFeature> }) => void,
+  onFacesChanged?: ({
+    added: Array<TrackedFaceFeature>,
+    updated: Array<TrackedFaceFeature>,
+    removed: Array<number>,
+  }) => void,
+  faceDeltaThreshold?: number,
+  compactFaceEvents?: { landmarks?: Array<string> },
   captureAudio?: boolean,
   useCamera2Api?: boolean,
 };
@@ -123,11 +173,44 @@ export default class Camera extends React.Component<PropsType> {
     onMountError: PropTypes.func,
     onCameraReady: PropTypes.func,
     onBarCodeRead: PropTypes.func,
+    onBarCodesRead: PropTypes.func,
     onFacesDetected: PropTypes.func,
+    onFacesChanged: PropTypes.func,
+    faceDeltaThreshold: PropTypes.number,
+    compactFaceEvents: PropTypes.shape({
+      landmarks: PropTypes.arrayOf(PropTypes.string),
+    }),
     faceDetectionMode: PropTypes.number,
     faceDetectionLandmarks: PropTypes.number,
     faceDetectionClassifications: PropTypes.number,
     barCodeTypes: PropTypes.arrayOf(PropTypes.string),
+    barCodeScanInterval: PropTypes.number,
+    barCodeScanArea: PropTypes.shape({
+      x: PropTypes.number,
+      y: PropTypes.number,
+      width: PropTypes.number,
+      height: PropTypes.number,
+    }),
+    barCodeDownsampling: PropTypes.oneOf([1, 2, 4]),
+    adaptiveBarCodeFormats: PropTypes.bool,
+    barCodeDecodeLadder: PropTypes.shape({
+      hybridInterval: PropTypes.number,
+      missThreshold: PropTypes.number,
+    }),
+    barCodeTracking: PropTypes.shape({
+      padding: PropTypes.number,
+      maxMisses: PropTypes.number,
+    }),
+    barCodeDecoder: PropTypes.oneOf(['zxing', 'vision', 'auto']),
+    barCodeDebounce: PropTypes.shape({
+      window: PropTypes.number,
+      maxEntries: PropTypes.number,
+      heartbeatInterval: PropTypes.number,
+    }),
+    faceDetectionInterval: PropTypes.number,
+    faceDetectionResolution: PropTypes.number,
+    maxInFlightCaptures: PropTypes.number,
+    captureOverflowPolicy: PropTypes.oneOf(['queue', 'reject', 'coalesce']),
     type: PropTypes.oneOfType([PropTypes.string, PropTypes.number]),
     flashMode: PropTypes.oneOfType([PropTypes.string, PropTypes.number]),
     whiteBalance: PropTypes.oneOfType([PropTypes.string, PropTypes.number]),
@@ -244,6 +327,93 @@ export default class Camera extends React.Component<PropsType> {
     }
   }
 
+  async getPipelineStatsAsync() {
+    if (Platform.OS === 'android') {
+      return await CameraManager.getPipelineStats(this._cameraHandle);
+    } else {
+      throw new Error('Pipeline stats are not available on iOS');
+    }
+  }
+
+  resetPipelineStats() {
+    if (Platform.OS === 'android') {
+      CameraManager.resetPipelineStats(this._cameraHandle);
+    }
+  }
+
+  static setTracingEnabled(enabled: boolean) {
+    if (Platform.OS === 'android') {
+      CameraManager.setTracingEnabled(enabled);
+    }
+  }
+
+  static async dumpTraceAsync(options?: { clear?: boolean }) {
+    if (Platform.OS === 'android') {
+      return await CameraManager.dumpTrace(!!(options && options.clear));
+    } else {
+      throw new Error('Tracing is not available on iOS');
+    }
+  }
+
+  static configureTaskExecutors(options: TaskExecutorsOptions) {
+    if (Platform.OS === 'android') {
+      CameraManager.configureTaskExecutors(options);
+    } else {
+      throw new Error('Task executors are not configurable on iOS');
+    }
+  }
+
+  static async getTaskExecutorsStatusAsync() {
+    if (Platform.OS === 'android') {
+      return await CameraManager.getTaskExecutorsStatus();
+    } else {
+      throw new Error('Task executors are not available on iOS');
+    }
+  }
+
+  static async getBarCodeScanningStatsAsync() {
+    if (Platform.OS === 'android') {
+      return await CameraManager.getBarCodeScanningStats();
+    } else {
+      throw new Error('Bar code scanning stats are not available on iOS');
+    }
+  }
+
+  static resetBarCodeScanningStats() {
+    if (Platform.OS === 'android') {
+      CameraManager.resetBarCodeScanningStats();
+    }
+  }
+
+  static async decodeBarcodesFromFilesAsync(
+    uris: Array<string>,
+    options?: FileBarCodeDecodingOptions,
+    onFileDecoded?: (result: FileBarCodeDecodingResult) => void,
+  ) {
+    if (Platform.OS !== 'android') {
+      throw new Error('Decoding bar codes from files is not available on iOS');
+    }
+    const batchId = nextFileBarCodeBatchId++;
+    const subscription =
+      onFileDecoded &&
+      DeviceEventEmitter.addListener('RNCameraFileBarCodesDecoded', result => {
+        if (result.batchId === batchId) {
+          onFileDecoded(result);
+        }
+      });
+    try {
+      return await CameraManager.decodeBarcodesFromFiles(uris, {
+        ...options,
+        batchId,
+        progress: !!onFileDecoded,
+      });
+    } finally {
+      if (subscription) {
+        subscription.remove();
+      }
+    }
+  }
+
   async recordAsync(options?: RecordingOptions) {
     if (!options || typeof options !== 'object') {
       options = {};
@@ -263,9 +433,9 @@ export default class Camera extends React.Component<PropsType> {
     }
   };
 
-  _onCameraReady = () => {
+  _onCameraReady = ({ nativeEvent }: EventCallbackArgumentsType) => {
     if (this.props.onCameraReady) {
-      this.props.onCameraReady();
+      this.props.onCameraReady(nativeEvent);
     }
   };
 
@@ -290,6 +460,20 @@ export default class Camera extends React.Component<PropsType> {
     }
   };
 
+  _onBarCodesRead = ({ nativeEvent }: EventCallbackArgumentsType) => {
+    // Repeated frames are already filtered natively
+    if (this.props.onBarCodesRead) {
+      this.props.onBarCodesRead(nativeEvent);
+    }
+  };
+
+  _onFacesChanged = ({ nativeEvent }: EventCallbackArgumentsType) => {
+    // Unchanged faces are already filtered natively
+    if (this.props.onFacesChanged) {
+      this.props.onFacesChanged(nativeEvent);
+    }
+  };
+
   _setReference = (ref: ?Object) => {
     if (ref) {
       this._cameraRef = ref;
@@ -331,7 +515,9 @@ export default class Camera extends React.Component<PropsType> {
           onMountError={this._onMountError}
           onCameraReady={this._onCameraReady}
           onBarCodeRead={this._onObjectDetected(this.props.onBarCodeRead)}
+          onBarCodesRead={this._onBarCodesRead}
           onFacesDetected={this._onObjectDetected(this.props.onFacesDetected)}
+          onFacesChanged={this._onFacesChanged}
         />
       );
     } else if (!this.state.isAuthorizationChecked) {
@@ -348,10 +534,21 @@ export default class Camera extends React.Component<PropsType> {
       newProps.barCodeScannerEnabled = true;
     }
 
+    if (props.onBarCodesRead && Platform.OS === 'android') {
+      newProps.barCodeScannerEnabled = true;
+      newProps.multipleBarCodesEnabled = true;
+    }
+
     if (props.onFacesDetected) {
       newProps.faceDetectorEnabled = true;
     }
 
+    if (props.onFacesChanged && Platform.OS === 'android') {
+      newProps.faceDetectorEnabled = true;
+      newProps.faceDeltasEnabled = true;
+      newProps.faceDeltasOnly = !props.onFacesDetected;
+    }
+
     if (Platform.OS === 'ios') {
       delete newProps.ratio;
     }
@@ -377,8 +574,12 @@ const RNCamera = requireNativeComponent('RNCamera', Camera, {
     accessibilityLiveRegion: true,
     barCodeScannerEnabled: true,
     faceDetectorEnabled: true,
+    faceDeltasEnabled: true,
+    faceDeltasOnly: true,
     importantForAccessibility: true,
+    multipleBarCodesEnabled: true,
     onBarCodeRead: true,
+    onBarCodesRead: true,
     onCameraReady: true,
     onFaceDetected: true,
     onLayout: true,
@@ -46,7 +46,8 @@ export interface RNCameraProps {
     notAuthorizedView?: JSX.Element;
     pendingAuthorizationView?: JSX.Element;
 
-    onCameraReady?(): void;
+    /** faceDetectorWarmUpTime: Android only, milliseconds taken to build the face detector, null if not built yet or still warming up */
+    onCameraReady?(event: { faceDetectorWarmUpTime?: number | null }): void;
     onMountError?(): void;
 
     /** Value: float from 0 to 1.0 */
@@ -60,10 +61,28 @@ export interface RNCameraProps {
         data: string
         type: keyof BarCodeType
     }): void;
+    /** Android only. Every code found in a frame, replaces onBarCodeRead when set */
+    onBarCodesRead?(event: {
+        barCodes: Array<{
+            data: string
+            type: keyof BarCodeType
+            /** Only with barCodeDebounce, whether the code passed it */
+            isNew?: boolean
+        }>
+    }): void;
 
     // -- FACE DETECTION PROPS
 
     onFacesDetected?(response: { faces: Face[] }): void;
+    /** Android only. Faces that appeared, moved by more than faceDeltaThreshold, or disappeared */
+    onFacesChanged?(response: { added: Face[]; updated: Face[]; removed: number[] }): void;
+    /** Android only. View points a face's bounds have to move by to be updated, 4 by default */
+    faceDeltaThreshold?: number;
+    /**
+     * Android only. Send onFacesDetected faces as one flat array of numbers,
+     * { stride, landmarks, faceData }, with the given landmarks only
+     */
+    compactFaceEvents?: { landmarks?: string[] };
     onFaceDetectionError?(response: { isOperational: boolean }): void;
     faceDetectionMode?: keyof FaceDetectionMode;
     faceDetectionLandmarks?: keyof FaceDetectionLandmarks;
@@ -77,6 +96,30 @@ export interface RNCameraProps {
     permissionDialogTitle?: string;
     /** Android only */
     permissionDialogMessage?: string;
+    /** Android only. Minimum time in milliseconds between two frames scanned for bar codes */
+    barCodeScanInterval?: number;
+    /** Android only. Part of the view searched for bar codes, in fractions of the view size */
+    barCodeScanArea?: { x: number; y: number; width: number; height: number };
+    /** Android only. Decode a frame downsampled by this factor first, full resolution only if it fails */
+    barCodeDownsampling?: 1 | 2 | 4;
+    /** Android only. Try the most recently read bar code formats first */
+    adaptiveBarCodeFormats?: boolean;
+    /** Android only. Decode with the cheapest binarizer first, more thorough passes only when needed */
+    barCodeDecodeLadder?: { hybridInterval?: number; missThreshold?: number };
+    /** Android only. Search the next frames around the last read code only */
+    barCodeTracking?: { padding?: number; maxMisses?: number };
+    /** Android only. Bar code engine, 'auto' keeps the faster one on the device */
+    barCodeDecoder?: 'zxing' | 'vision' | 'auto';
+    /** Android only. Drop repeated sightings of a code natively instead of sending one event per frame */
+    barCodeDebounce?: { window: number; maxEntries?: number; heartbeatInterval?: number };
+    /** Android only. Minimum time in milliseconds between two frames scanned for faces */
+    faceDetectionInterval?: number;
+    /** Android only. Shorter side in pixels of the downsampled frames analyzed for faces, 0 for full resolution */
+    faceDetectionResolution?: number;
+    /** Android only. Maximum number of pictures taken from the preview being produced at the same time */
+    maxInFlightCaptures?: number;
+    /** Android only. What happens to takePictureAsync calls beyond maxInFlightCaptures */
+    captureOverflowPolicy?: 'queue' | 'reject' | 'coalesce';
 
     // -- IOS ONLY PROPS
     
@@ -126,6 +169,8 @@ interface TakePictureOptions {
 
     /** Android only */
     fixOrientation?: boolean;
+    /** Android only. Milliseconds the request may wait before being rejected, 0 to wait forever. Defaults to 10000 */
+    timeout?: number;
     /** iOS only */
     forceUpOrientation?: boolean;
 }
@@ -156,6 +201,177 @@ interface RecordResponse {
     codec: VideoCodec[keyof VideoCodec];
 }
 
+interface TaskExecutorOptions {
+    threads?: number;
+    /** One of android.os.Process.THREAD_PRIORITY_* values */
+    priority?: number;
+}
+
+interface TaskExecutorsOptions {
+    barCode?: TaskExecutorOptions;
+    faceDetection?: TaskExecutorOptions;
+    capture?: TaskExecutorOptions;
+    frameProcessor?: TaskExecutorOptions;
+    fileBarCode?: TaskExecutorOptions;
+}
+
+interface TaskExecutorStatus {
+    threads: number;
+    priority: number;
+    active: number;
+    queueDepth: number;
+}
+
+interface TaskExecutorsStatus {
+    barCode: TaskExecutorStatus;
+    faceDetection: TaskExecutorStatus;
+    capture: TaskExecutorStatus;
+    frameProcessor: TaskExecutorStatus;
+    fileBarCode: TaskExecutorStatus;
+}
+
+interface LatencyStats {
+    count: number;
+    /** Milliseconds */
+    mean: number;
+    p50: number;
+    p95: number;
+    p99: number;
+    max: number;
+}
+
+interface AnalyzerStats {
+    processed: number;
+    /** Frames replaced by a newer one while the analyzer was busy */
+    dropped: number;
+    /** Frames skipped because of barCodeScanInterval / faceDetectionInterval */
+    skipped: number;
+}
+
+interface BarCodeFormatStats {
+    format: string;
+    /** The formats of a group are read in a single pass */
+    group: '1d' | 'qr' | '2d';
+    /** Attempts of the group */
+    attempts: number;
+    hits: number;
+}
+
+interface BarCodeDecoderBenchmark {
+    frames: number;
+    /** Mean decode time, in milliseconds */
+    mean: number;
+    /** Frames in which a code was read */
+    hits: number;
+}
+
+interface PipelineStats {
+    framesReceived: number;
+    barCode: AnalyzerStats & {
+        /** In the order they are tried */
+        formats: BarCodeFormatStats[];
+        /** Only filled when barCodeDecodeLadder is set */
+        tiers: {
+            globalHistogram: LatencyStats & { hits: number };
+            hybrid: LatencyStats & { hits: number };
+            tryHarder: LatencyStats & { hits: number };
+        };
+        /** Only filled when barCodeTracking is set */
+        tracking: {
+            /** Frames decoded in the predicted window */
+            windowFrames: number;
+            /** Frames decoded in the whole frame or barCodeScanArea */
+            fullFrames: number;
+        };
+        decoder: {
+            mode: 'zxing' | 'vision' | 'auto';
+            /** null while 'auto' is benchmarking */
+            active: 'zxing' | 'vision' | null;
+            benchmark: {
+                zxing: BarCodeDecoderBenchmark;
+                vision: BarCodeDecoderBenchmark;
+            };
+        };
+    };
+    faceDetection: AnalyzerStats & {
+        /** Milliseconds taken by the last face detector warm-up, null while it runs */
+        warmUpTime: number | null;
+        /** Shared by every camera and FaceDetector */
+        detectorPool: {
+            idle: number;
+            /** Estimated native memory of the idle detectors */
+            idleBytes: number;
+            built: number;
+            reused: number;
+            evicted: number;
+        };
+    };
+    stages: {
+        frameDelivery: LatencyStats;
+        barCodeDecode: LatencyStats;
+        faceDetection: LatencyStats;
+        eventDispatch: LatencyStats;
+        captureResolve: LatencyStats;
+        captureQueue: LatencyStats;
+    };
+    capture: {
+        /** takePictureAsync calls waiting for a picture */
+        waiting: number;
+        /** Pictures being produced */
+        inFlight: number;
+    };
+    executors: TaskExecutorsStatus;
+}
+
+interface BarCodeScanningSourceStats {
+    scans: number;
+    /** Scans which read at least one code */
+    hits: number;
+    decode: LatencyStats;
+}
+
+interface BarCodeScanningStats {
+    rnCamera: BarCodeScanningSourceStats;
+    /** The legacy RCTCamera component */
+    rctCamera: BarCodeScanningSourceStats;
+    /** decodeBarcodesFromFilesAsync */
+    file: BarCodeScanningSourceStats;
+}
+
+interface FileBarCodeDecodingOptions {
+    /** Values of RNCamera.Constants.BarCodeType, all types by default */
+    barCodeTypes?: string[];
+    /** Read every code of each image instead of the first one, default false */
+    multiple?: boolean;
+    /** Default true */
+    tryHarder?: boolean;
+    /** Images are subsampled until their longest side fits, default 2048 */
+    maxDimension?: number;
+}
+
+interface FileBarCodeDecodingResult {
+    index: number;
+    uri: string;
+    barCodes?: {
+        data: string;
+        type: string;
+        /** In the image's pixels */
+        points: Point[];
+    }[];
+    image?: { width: number; height: number };
+    /** Set instead of barCodes when the file could not be read */
+    error?: string;
+}
+
+interface TraceEntry {
+    section: string;
+    threadId: number;
+    /** Milliseconds, System.nanoTime() based */
+    start: number;
+    /** Milliseconds */
+    duration: number;
+}
+
 export class RNCamera extends Component<RNCameraProps & ViewProperties> {
     static Constants: Constants;
 
@@ -165,6 +381,33 @@ export class RNCamera extends Component<RNCameraProps & ViewProperties> {
 
     /** Android only */
     getSupportedRatiosAsync(): Promise<string[]>;
+
+    /** Android only */
+    getPipelineStatsAsync(): Promise<PipelineStats>;
+    /** Android only */
+    resetPipelineStats(): void;
+
+    /** Android only */
+    static setTracingEnabled(enabled: boolean): void;
+    /** Android only */
+    static dumpTraceAsync(options?: { clear?: boolean }): Promise<TraceEntry[]>;
+
+    /** Android only */
+    static configureTaskExecutors(options: TaskExecutorsOptions): void;
+    /** Android only */
+    static getTaskExecutorsStatusAsync(): Promise<TaskExecutorsStatus>;
+
+    /** Android only */
+    static getBarCodeScanningStatsAsync(): Promise<BarCodeScanningStats>;
+    /** Android only */
+    static resetBarCodeScanningStats(): void;
+
+    /** Android only */
+    static decodeBarcodesFromFilesAsync(
+        uris: string[],
+        options?: FileBarCodeDecodingOptions,
+        onFileDecoded?: (result: FileBarCodeDecodingResult) => void
+    ): Promise<FileBarCodeDecodingResult[]>;
 }
 
 interface DetectionOptions {